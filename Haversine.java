@@ -0,0 +1,88 @@
+package org.openmetromaps.maps;
+
+/**
+ * Great-circle distances in meters over packed coordinate arrays.
+ *
+ * Points are stored as {@code [lat0, lon0, lat1, lon1, ...]} in degrees, the same order
+ * {@code Coordinate} takes its values in. The bulk methods convert every point to radians
+ * once and then share {@link #kernel} with the single-pair method, so both give
+ * bit-identical results.
+ */
+public final class Haversine {
+
+    public static final double EARTH_RADIUS = 6371008.8;
+
+    private Haversine() {
+    }
+
+    public static double distance(double lat1, double lon1, double lat2, double lon2) {
+        double lat1Rad = Math.toRadians(lat1);
+        double lat2Rad = Math.toRadians(lat2);
+        return kernel(lat1Rad, Math.toRadians(lon1), Math.cos(lat1Rad), lat2Rad, Math.toRadians(lon2), Math.cos(lat2Rad));
+    }
+
+    /**
+     * Distance between the i-th point of {@code from} and the i-th point of {@code to},
+     * written to {@code out[i]}.
+     */
+    public static void distances(double[] from, double[] to, double[] out) {
+        int count = pointCount(from);
+        if(pointCount(to) != count || out.length < count) {
+            throw new IllegalArgumentException("Arrays hold a different number of points: " + count + ", " + pointCount(to) + ", " + out.length);
+        }
+
+        for(int i = 0; i < count; i++) {
+            double lat1Rad = Math.toRadians(from[2 * i]);
+            double lat2Rad = Math.toRadians(to[2 * i]);
+            out[i] = kernel(
+                    lat1Rad, Math.toRadians(from[2 * i + 1]), Math.cos(lat1Rad),
+                    lat2Rad, Math.toRadians(to[2 * i + 1]), Math.cos(lat2Rad)
+            );
+        }
+    }
+
+    /**
+     * Full distance matrix of the given points, written row by row to {@code out}, which
+     * needs room for {@code n * n} values.
+     */
+    public static void distanceMatrix(double[] points, double[] out) {
+        int count = pointCount(points);
+        if((long) count * count > out.length) {
+            throw new IllegalArgumentException("Output holds " + out.length + " values, " + ((long) count * count) + " needed");
+        }
+
+        double[] latRad = new double[count];
+        double[] lonRad = new double[count];
+        double[] cosLat = new double[count];
+        for(int i = 0; i < count; i++) {
+            latRad[i] = Math.toRadians(points[2 * i]);
+            lonRad[i] = Math.toRadians(points[2 * i + 1]);
+            cosLat[i] = Math.cos(latRad[i]);
+        }
+
+        // The kernel is symmetric, so only the upper triangle is computed.
+        for(int i = 0; i < count; i++) {
+            int row = i * count;
+            out[row + i] = 0;
+            for(int j = i + 1; j < count; j++) {
+                double distance = kernel(latRad[i], lonRad[i], cosLat[i], latRad[j], lonRad[j], cosLat[j]);
+                out[row + j] = distance;
+                out[j * count + i] = distance;
+            }
+        }
+    }
+
+    private static int pointCount(double[] points) {
+        if(points.length % 2 != 0) {
+            throw new IllegalArgumentException("Packed coordinates need an even length: " + points.length);
+        }
+        return points.length / 2;
+    }
+
+    private static double kernel(double lat1Rad, double lon1Rad, double cosLat1, double lat2Rad, double lon2Rad, double cosLat2) {
+        double sinLat = Math.sin((lat2Rad - lat1Rad) / 2);
+        double sinLon = Math.sin((lon2Rad - lon1Rad) / 2);
+        double a = sinLat * sinLat + cosLat1 * cosLat2 * (sinLon * sinLon);
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,69 @@
+package org.openmetromaps.maps;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class HaversineUnitTests {
+
+    double[] points;
+
+    @Before
+    public void createPoints() {
+        Random random = new Random(42);
+        points = new double[2 * 200];
+        for(int i = 0; i < points.length; i += 2) {
+            points[i] = 47.4891 + (random.nextDouble() * 2 - 1) * 0.5;
+            points[i + 1] = 19.0614 + (random.nextDouble() * 2 - 1) * 0.5;
+        }
+    }
+
+    /* Stations A and B of the test maps, 0.01 degrees of longitude apart */
+    @Test
+    public void testDistance_neighbouringStations() {
+        double distance = Haversine.distance(47.4891, 19.0614, 47.4891, 19.0714);
+
+        Assert.assertEquals(751.5, distance, 1.0);
+        Assert.assertEquals(0.0, Haversine.distance(47.4891, 19.0614, 47.4891, 19.0614), 0.0);
+    }
+
+    @Test
+    public void testDistances_matchSinglePairs() {
+        int count = points.length / 2;
+        double[] from = new double[count];
+        double[] to = new double[count];
+        System.arraycopy(points, 0, from, 0, count);
+        System.arraycopy(points, count, to, 0, count);
+
+        double[] distances = new double[count / 2];
+        Haversine.distances(from, to, distances);
+
+        for(int i = 0; i < distances.length; i++) {
+            double expected = Haversine.distance(from[2 * i], from[2 * i + 1], to[2 * i], to[2 * i + 1]);
+            Assert.assertEquals("Distance differs for pair " + i, expected, distances[i], 0.0);
+        }
+    }
+
+    @Test
+    public void testDistanceMatrix_matchesSinglePairs() {
+        int count = points.length / 2;
+        double[] matrix = new double[count * count];
+        Haversine.distanceMatrix(points, matrix);
+
+        for(int i = 0; i < count; i++) {
+            for(int j = 0; j < count; j++) {
+                double expected = Haversine.distance(points[2 * i], points[2 * i + 1], points[2 * j], points[2 * j + 1]);
+                Assert.assertEquals("Distance differs for " + i + ", " + j, expected, matrix[i * count + j], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testDistances_rejectMismatchedArrays() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> Haversine.distances(new double[4], new double[2], new double[2]));
+        Assert.assertThrows(IllegalArgumentException.class, () -> Haversine.distanceMatrix(new double[3], new double[4]));
+        Assert.assertThrows(IllegalArgumentException.class, () -> Haversine.distanceMatrix(new double[4], new double[3]));
+    }
+}
@@ -0,0 +1,362 @@
+package org.openmetromaps.maps;
+
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.openmetromaps.maps.model.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fluent assertions on a {@link ModelData}, shared by all test suites.
+ *
+ * Stations and lines are indexed by name once per asserter and list comparisons are
+ * done by counting, so verifying a large generated model stays linear in its size.
+ *
+ * The "exact" assertions compare lists as multisets: every expected element has to be
+ * present as many times as it is listed, e.g. a circular line stopping twice at a
+ * station has to be named twice for that station.
+ */
+public class ModelAsserter {
+    private final ModelData model;
+
+    private final Map<String, Station> stationsByName;
+    private final Map<String, Line> linesByName;
+    private final Set<Station> stations;
+    private final Set<Line> lines;
+
+    private Map<Long, List<Line>> linesBySegment;
+
+    private ModelAsserter(ModelData model) {
+        this.model = model;
+
+        this.stationsByName = new HashMap<>(model.stations.size() * 2);
+        for(Station station : model.stations) {
+            stationsByName.putIfAbsent(station.getName(), station);
+        }
+        this.linesByName = new HashMap<>(model.lines.size() * 2);
+        for(Line line : model.lines) {
+            linesByName.putIfAbsent(line.getName(), line);
+        }
+
+        this.stations = new HashSet<>(model.stations);
+        this.lines = new HashSet<>(model.lines);
+    }
+
+    /**
+     * Creates an asserter for the current state of the model. The name indexes are taken
+     * when this is called, so call it again after every mutation instead of holding on
+     * to an asserter.
+     */
+    public static ModelAsserter assertModel(ModelData data) {
+        return new ModelAsserter(data);
+    }
+
+    public ModelAsserter hasStations(int num) {
+        Assert.assertEquals("There are more or fewer stations lines than expected", num, model.stations.size());
+        return this;
+    }
+
+    public ModelAsserter hasExactStations(String... stationNames) {
+        assertStationListEquals(getStationsFromNames(stationNames), model.stations);
+        return this;
+    }
+
+    public ModelAsserter hasStations(String... stationNames) {
+        for(Station station : getStationsFromNames(stationNames)) {
+            Assert.assertTrue("The station was not present: " + station.getName() + ")", stations.contains(station));
+        }
+        return this;
+    }
+
+    public ModelAsserter hasStation(String stationName) {
+        hasStations(stationName);
+        return this;
+    }
+
+    public ModelAsserter hasStation(String stationName, Function<Station, Void> assertStation) {
+        hasStations(stationName);
+        assertStation.apply(getStationFromName(stationName));
+        return this;
+    }
+
+    public ModelAsserter hasStationWithExactLines(String stationName, String... lineNames) {
+        hasStations(stationName);
+
+        Station station = getStationFromName(stationName);
+        List<Line> lines = getLinesFromNames(lineNames);
+
+        assertLineListEquals(lines, station.getStops().stream().map(Stop::getLine).toList());
+
+        return this;
+    }
+
+    public ModelAsserter hasStationWithLines(String stationName, String... lineNames) {
+        hasStations(stationName);
+
+        Station station = getStationFromName(stationName);
+        List<Line> lines = getLinesFromNames(lineNames);
+        Set<Line> stationLines = station.getStops().stream().map(Stop::getLine).collect(Collectors.toSet());
+
+        for(Line line : lines) {
+            Assert.assertTrue(
+                    "Line (" + line.getName() + ") does not stop at Station (" + station.getName() + ")",
+                    stationLines.contains(line)
+            );
+        }
+
+        return this;
+    }
+
+    public ModelAsserter hasLines(int num) {
+        Assert.assertEquals("There are more or fewer lines than expected", num, model.lines.size());
+        return this;
+    }
+
+    public ModelAsserter hasExactLines(String... lineNames) {
+        assertLineListEquals(getLinesFromNames(lineNames), model.lines);
+        return this;
+    }
+
+    public ModelAsserter hasLines(String... lineNames) {
+        for(Line line : getLinesFromNames(lineNames)) {
+            Assert.assertTrue("The line was not present (" + line + ")", lines.contains(line));
+        }
+        return this;
+    }
+
+    public ModelAsserter hasLine(String lineName) {
+        hasLines(lineName);
+        return this;
+    }
+
+    public ModelAsserter hasLine(String lineName, Function<Line, Void> assertLine) {
+        hasLines(lineName);
+        assertLine.apply(getLineFromName(lineName));
+        return this;
+    }
+
+    public ModelAsserter hasLineWithExactStations(String lineName, String... stationNames) {
+        hasLines(lineName);
+
+        Line line = getLineFromName(lineName);
+        List<Station> stations = getStationsFromNames(stationNames);
+        List<Station> lineStations = line.getStops().stream().map(Stop::getStation).toList();
+
+        String expectedStationNames = stations.stream().map(Station::getName).collect(Collectors.joining(", "));
+        String actualStationNames = lineStations.stream().map(Station::getName).collect(Collectors.joining(", "));
+
+        Assert.assertTrue(
+                "Stations differ on line (" +
+                        line.getName() +
+                        "). Expected: " +
+                        expectedStationNames +
+                        ". Actual: "
+                        + actualStationNames,
+                stations.equals(lineStations) || stations.equals(Lists.reverse(lineStations))
+        );
+
+        return this;
+    }
+
+    /**
+     * Asserts the lines running directly between two stations, in either direction. Lines
+     * are matched by name and may be reachable only through the stops of the stations,
+     * like lines 2-4 of the FourStationsMulti map.
+     */
+    public ModelAsserter hasSegmentWithExactLines(String stationName1, String stationName2, String... lineNames) {
+        hasStations(stationName1, stationName2);
+
+        Station station1 = getStationFromName(stationName1);
+        Station station2 = getStationFromName(stationName2);
+        List<String> segmentLineNames = getSegmentLines(station1, station2).stream().map(Line::getName).toList();
+
+        Assert.assertEquals("There are more or fewer lines than expected", lineNames.length, segmentLineNames.size());
+        assertSameElements("lines", List.of(lineNames), segmentLineNames, Function.identity());
+
+        return this;
+    }
+
+    public ModelAsserter hasSegmentWithLines(String stationName1, String stationName2, String... lineNames) {
+        hasStations(stationName1, stationName2);
+
+        Station station1 = getStationFromName(stationName1);
+        Station station2 = getStationFromName(stationName2);
+        Set<String> segmentLineNames = getSegmentLines(station1, station2).stream().map(Line::getName).collect(Collectors.toSet());
+
+        for(String lineName : lineNames) {
+            Assert.assertTrue(
+                    "Line (" + lineName + ") does not run between Station (" + station1.getName() + ") and Station (" + station2.getName() + ")",
+                    segmentLineNames.contains(lineName)
+            );
+        }
+
+        return this;
+    }
+
+    /**
+     * Asserts that all Station - Stop - Line back-references agree, see {@link ModelValidator}.
+     */
+    public ModelAsserter isConsistent() {
+        List<String> problems = ModelValidator.validate(model);
+        Assert.assertTrue(
+                "The model is inconsistent (" + problems.size() + " problems): " +
+                        String.join("; ", problems.subList(0, Math.min(10, problems.size()))),
+                problems.isEmpty()
+        );
+        return this;
+    }
+
+    private List<Station> getStationsFromNames(String... stationNames) {
+        return getStationsFromNames(List.of(stationNames));
+    }
+
+    private List<Station> getStationsFromNames(List<String> stationNames) {
+        return stationNames.stream()
+                .map(this::getStationFromName)
+                .toList();
+    }
+
+    private Station getStationFromName(String stationName) {
+        Station station = stationsByName.get(stationName);
+        if(station == null) {
+            Assert.fail("Station with name is not in the model: " + stationName);
+        }
+        return station;
+    }
+
+    private void assertStationListEquals(List<Station> expected, List<Station> actual) {
+        Assert.assertEquals("There are more or fewer stations than expected", expected.size(), actual.size());
+        assertSameElements("stations", expected, actual, Station::getName);
+    }
+
+    private List<Line> getSegmentLines(Station station1, Station station2) {
+        if(linesBySegment == null) {
+            linesBySegment = indexSegments(model);
+        }
+        return linesBySegment.getOrDefault(segmentKey(station1, station2), List.of());
+    }
+
+    /**
+     * Maps every pair of consecutive stations, including the closing pair of circular
+     * lines, to the lines serving it. The registered lines and the lines reached through
+     * the stops of the registered stations are indexed in one pass on first use.
+     */
+    private static Map<Long, List<Line>> indexSegments(ModelData model) {
+        Set<Line> seen = Collections.newSetFromMap(new IdentityHashMap<>(model.lines.size() * 2));
+        List<Line> lines = new ArrayList<>(model.lines.size());
+        for(Line line : model.lines) {
+            if(seen.add(line)) {
+                lines.add(line);
+            }
+        }
+        for(Station station : model.stations) {
+            for(Stop stop : station.getStops()) {
+                if(seen.add(stop.getLine())) {
+                    lines.add(stop.getLine());
+                }
+            }
+        }
+
+        Map<Long, List<Line>> index = new HashMap<>();
+        for(Line line : lines) {
+            List<Stop> stops = line.getStops();
+            int segments = line.isCircular() ? stops.size() : stops.size() - 1;
+            for(int i = 0; i < segments; i++) {
+                Station from = stops.get(i).getStation();
+                Station to = stops.get((i + 1) % stops.size()).getStation();
+                if(from == to) {
+                    continue;
+                }
+                List<Line> segmentLines = index.computeIfAbsent(segmentKey(from, to), k -> new ArrayList<>(2));
+                // A line can only run along the same segment twice if it doubles back,
+                // and it is still a single service for that segment.
+                if(!segmentLines.contains(line)) {
+                    segmentLines.add(line);
+                }
+            }
+        }
+        return index;
+    }
+
+    private static long segmentKey(Station station1, Station station2) {
+        int low = Math.min(station1.getId(), station2.getId());
+        int high = Math.max(station1.getId(), station2.getId());
+        return ((long) low << 32) | (high & 0xFFFFFFFFL);
+    }
+
+    private List<Line> getLinesFromNames(String... lineNames) {
+        return getLinesFromNames(List.of(lineNames));
+    }
+
+    private List<Line> getLinesFromNames(List<String> lineNames) {
+        return lineNames.stream()
+                .map(this::getLineFromName)
+                .toList();
+    }
+
+    private Line getLineFromName(String lineName) {
+        Line line = linesByName.get(lineName);
+        if(line == null) {
+            Assert.fail("Line with name is not in the model: " + lineName);
+        }
+        return line;
+    }
+
+    private void assertLineListEquals(List<Line> expected, List<Line> actual) {
+        Assert.assertEquals("There are more or fewer lines than expected", expected.size(), actual.size());
+        assertSameElements("lines", expected, actual, Line::getName);
+    }
+
+    /**
+     * Compares both lists as multisets: every element is counted up for the expected
+     * list and down for the actual one, so the check is linear instead of O(n*m).
+     */
+    private static <T> void assertSameElements(String kind, List<T> expected, List<T> actual, Function<T, String> name) {
+        Map<T, Integer> counts = new HashMap<>(expected.size() * 2);
+        for(T element : expected) {
+            counts.merge(element, 1, Integer::sum);
+        }
+
+        boolean unexpected = false;
+        for(T element : actual) {
+            Integer count = counts.get(element);
+            if(count == null || count == 0) {
+                unexpected = true;
+                break;
+            }
+            counts.put(element, count - 1);
+        }
+
+        if(unexpected) {
+            Assert.fail(
+                    "There are " + kind + " that were not expected but are present. Expected: " +
+                            joinNames(expected, name) +
+                            ". Actual: " +
+                            joinNames(actual, name)
+            );
+        }
+        for(int count : counts.values()) {
+            if(count != 0) {
+                Assert.fail(
+                        "There are " + kind + " that were expected but are not present. Expected: " +
+                                joinNames(expected, name) +
+                                ". Actual: " +
+                                joinNames(actual, name)
+                );
+            }
+        }
+    }
+
+    private static <T> String joinNames(List<T> elements, Function<T, String> name) {
+        return elements.stream().map(name).collect(Collectors.joining(", "));
+    }
+}
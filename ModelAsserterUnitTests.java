@@ -0,0 +1,166 @@
+package org.openmetromaps.maps;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmetromaps.maps.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.openmetromaps.maps.ModelAsserter.assertModel;
+
+public class ModelAsserterUnitTests {
+
+    ModelData model;
+
+    Station stationA;
+    Station stationB;
+
+    Line line1;
+    Line line2;
+
+    /* CREATE MAP
+
+    A       B
+    * ----- *       1
+    * ----- *       2 (back to A)
+
+    */
+    @Before
+    public void createMap() {
+        List<Stop> stationAStops = new ArrayList<>();
+        stationA = new Station(0, "A", new Coordinate(47.4891, 19.0614), stationAStops);
+
+        List<Stop> stationBStops = new ArrayList<>();
+        stationB = new Station(1, "B", new Coordinate(47.4891, 19.0714), stationBStops);
+
+        List<Stop> line1Stops = new ArrayList<>();
+        line1 = new Line(2, "1", "#009EE3", false, line1Stops);
+
+        List<Stop> line2Stops = new ArrayList<>();
+        line2 = new Line(3, "2", "#009EE3", false, line2Stops);
+
+        Stop line1AStop = new Stop(stationA, line1);
+        stationAStops.add(line1AStop);
+        line1Stops.add(line1AStop);
+
+        Stop line1BStop = new Stop(stationB, line1);
+        stationBStops.add(line1BStop);
+        line1Stops.add(line1BStop);
+
+        Stop line2AStop = new Stop(stationA, line2);
+        stationAStops.add(line2AStop);
+        line2Stops.add(line2AStop);
+
+        Stop line2BStop = new Stop(stationB, line2);
+        stationBStops.add(line2BStop);
+        line2Stops.add(line2BStop);
+
+        Stop line2AStopReturn = new Stop(stationA, line2);
+        stationAStops.add(line2AStopReturn);
+        line2Stops.add(line2AStopReturn);
+
+        model = new ModelData(new ArrayList<>(List.of(line1, line2)), new ArrayList<>(List.of(stationA, stationB)));
+    }
+
+    @Test
+    public void testExactLines_countsRepeatedStops() {
+        assertModel(model)
+                .hasStationWithExactLines("A", "2", "1", "2")
+                .hasStationWithExactLines("B", "1", "2");
+    }
+
+    /* Same size and same elements, but line 1 is expected twice and line 2 only once */
+    @Test
+    public void testExactLines_failOnDifferentMultiplicity() {
+        AssertionError error = Assert.assertThrows(
+                AssertionError.class,
+                () -> assertModel(model).hasStationWithExactLines("A", "1", "1", "2")
+        );
+
+        Assert.assertEquals(
+                "There are lines that were not expected but are present. Expected: 1, 1, 2. Actual: 1, 2, 2",
+                error.getMessage()
+        );
+    }
+
+    @Test
+    public void testExactStations_ignoreOrder() {
+        assertModel(model)
+                .hasExactStations("B", "A")
+                .hasExactLines("2", "1");
+    }
+
+    @Test
+    public void testExactStations_failOnMissingStation() {
+        AssertionError error = Assert.assertThrows(
+                AssertionError.class,
+                () -> assertModel(model).hasExactStations("A")
+        );
+
+        Assert.assertTrue(error.getMessage(), error.getMessage().startsWith("There are more or fewer stations than expected"));
+    }
+
+    /* Line 2 runs A - B and back, which is still a single service on A - B */
+    @Test
+    public void testSegments_doublingBackCountsOnce() {
+        assertModel(model)
+                .hasSegmentWithExactLines("A", "B", "1", "2")
+                .hasSegmentWithExactLines("B", "A", "2", "1");
+    }
+
+    @Test
+    public void testSegments_circularLineClosesLoop() {
+        addLineThroughC(true);
+
+        assertModel(model)
+                .hasSegmentWithExactLines("B", "C", "3")
+                .hasSegmentWithExactLines("C", "A", "3")
+                .hasSegmentWithExactLines("A", "B", "1", "2", "3");
+    }
+
+    @Test
+    public void testSegments_openLineDoesNotCloseLoop() {
+        addLineThroughC(false);
+
+        assertModel(model)
+                .hasSegmentWithExactLines("B", "C", "3")
+                .hasSegmentWithExactLines("C", "A");
+    }
+
+    @Test
+    public void testSegments_linesReachedThroughStations() {
+        model.lines.remove(line2);
+
+        assertModel(model)
+                .hasSegmentWithExactLines("A", "B", "1", "2")
+                .hasSegmentWithLines("B", "A", "2");
+    }
+
+    @Test
+    public void testSegmentWithLines() {
+        assertModel(model).hasSegmentWithLines("A", "B", "2");
+
+        addLineThroughC(false);
+        AssertionError error = Assert.assertThrows(
+                AssertionError.class,
+                () -> assertModel(model).hasSegmentWithLines("A", "C", "3")
+        );
+
+        Assert.assertEquals("Line (3) does not run between Station (A) and Station (C)", error.getMessage());
+    }
+
+    /* Line 3: A - B - C */
+    private void addLineThroughC(boolean circular) {
+        Station stationC = new Station(4, "C", new Coordinate(47.4891, 19.0814), new ArrayList<>());
+        Line line3 = new Line(5, "3", "#009EE3", circular, new ArrayList<>());
+        for(Station station : List.of(stationA, stationB, stationC)) {
+            Stop stop = new Stop(station, line3);
+            station.getStops().add(stop);
+            line3.getStops().add(stop);
+        }
+        model.stations.add(stationC);
+        model.lines.add(line3);
+    }
+}
@@ -0,0 +1,119 @@
+package org.openmetromaps.maps;
+
+import org.openmetromaps.maps.model.*;
+
+import java.util.Arrays;
+
+/**
+ * Compaction of a {@link ModelData} after heavy churn: a fresh copy, see {@link ModelCopier},
+ * in which stations get the dense ids 0..n-1 and lines the ids n..n+m-1, registered
+ * objects first, and every stop list is allocated at its exact size.
+ *
+ * Station and Line ids cannot change in place, so the compacted model consists of new
+ * objects, and the original is left untouched. The returned {@link Compaction} maps the
+ * ids in both directions for consumers that hold on to old ids.
+ */
+public final class ModelCompactor {
+
+    private ModelCompactor() {
+    }
+
+    public static Compaction compact(ModelData model) {
+        ModelCopier.Copy copy = ModelCopier.copy(model, true);
+
+        int[] oldStationIds = new int[copy.stations.size()];
+        for(int s = 0; s < oldStationIds.length; s++) {
+            oldStationIds[s] = copy.stations.get(s).getId();
+        }
+        int[] oldLineIds = new int[copy.lines.size()];
+        for(int l = 0; l < oldLineIds.length; l++) {
+            oldLineIds[l] = copy.lines.get(l).getId();
+        }
+        return new Compaction(copy.model, oldStationIds, oldLineIds);
+    }
+
+    /**
+     * The compacted model and its id remap table. Old ids are looked up by binary search
+     * over a sorted copy, so the table takes a few ints per object.
+     */
+    public static final class Compaction {
+
+        private final ModelData model;
+
+        private final int[] oldStationIds;
+        private final int[] oldLineIds;
+
+        private final int[] sortedOldStationIds;
+        private final int[] newStationIdsBySortedOld;
+        private final int[] sortedOldLineIds;
+        private final int[] newLineIdsBySortedOld;
+
+        private Compaction(ModelData model, int[] oldStationIds, int[] oldLineIds) {
+            this.model = model;
+            this.oldStationIds = oldStationIds;
+            this.oldLineIds = oldLineIds;
+
+            this.sortedOldStationIds = new int[oldStationIds.length];
+            this.newStationIdsBySortedOld = new int[oldStationIds.length];
+            sortByOldId(oldStationIds, 0, sortedOldStationIds, newStationIdsBySortedOld);
+            this.sortedOldLineIds = new int[oldLineIds.length];
+            this.newLineIdsBySortedOld = new int[oldLineIds.length];
+            sortByOldId(oldLineIds, oldStationIds.length, sortedOldLineIds, newLineIdsBySortedOld);
+        }
+
+        public ModelData getModel() {
+            return model;
+        }
+
+        /**
+         * Returns the new id of the station with the given old id, or -1 if there was no
+         * such station.
+         */
+        public int getNewStationId(int oldId) {
+            int index = Arrays.binarySearch(sortedOldStationIds, oldId);
+            return index < 0 ? -1 : newStationIdsBySortedOld[index];
+        }
+
+        /**
+         * Returns the old id of the station with the given new id, or -1 if there is no
+         * such station.
+         */
+        public int getOldStationId(int newId) {
+            return newId >= 0 && newId < oldStationIds.length ? oldStationIds[newId] : -1;
+        }
+
+        /**
+         * Returns the new id of the line with the given old id, or -1 if there was no
+         * such line.
+         */
+        public int getNewLineId(int oldId) {
+            int index = Arrays.binarySearch(sortedOldLineIds, oldId);
+            return index < 0 ? -1 : newLineIdsBySortedOld[index];
+        }
+
+        /**
+         * Returns the old id of the line with the given new id, or -1 if there is no such
+         * line.
+         */
+        public int getOldLineId(int newId) {
+            int position = newId - oldStationIds.length;
+            return position >= 0 && position < oldLineIds.length ? oldLineIds[position] : -1;
+        }
+
+        /**
+         * Sorts the old ids, each packed with its new id into one long, so the pairs sort
+         * by old id without boxing.
+         */
+        private static void sortByOldId(int[] oldIds, int firstNewId, int[] sortedOldIds, int[] newIds) {
+            long[] pairs = new long[oldIds.length];
+            for(int i = 0; i < oldIds.length; i++) {
+                pairs[i] = ((long) oldIds[i] << 32) | ((firstNewId + i) & 0xFFFFFFFFL);
+            }
+            Arrays.sort(pairs);
+            for(int i = 0; i < pairs.length; i++) {
+                sortedOldIds[i] = (int) (pairs[i] >> 32);
+                newIds[i] = (int) pairs[i];
+            }
+        }
+    }
+}
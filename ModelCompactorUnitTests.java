@@ -0,0 +1,128 @@
+package org.openmetromaps.maps;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmetromaps.maps.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.openmetromaps.maps.ModelAsserter.assertModel;
+
+public class ModelCompactorUnitTests {
+
+    ModelData model;
+
+    Station stationA;
+    Station stationB;
+    Station stationC;
+
+    Line line1;
+    Line line2;
+
+    /* CREATE MAP, with the sparse ids left behind by closures and splits
+
+    A       B       C
+    * ----- * ----- *       1
+            * ----- *       2 (only reachable through the stops of B and C)
+
+    */
+    @Before
+    public void createMap() {
+        stationA = new Station(17, "A", new Coordinate(47.4891, 19.0614), new ArrayList<>());
+        stationB = new Station(1000, "B", new Coordinate(47.4891, 19.0714), new ArrayList<>());
+        stationC = new Station(-5, "C", new Coordinate(47.4891, 19.0814), new ArrayList<>());
+
+        line1 = new Line(99999, "1", "#009EE3", false, new ArrayList<>());
+        line2 = new Line(Integer.MIN_VALUE, "2", "#009EE3", false, new ArrayList<>());
+
+        addStops(line1, stationA, stationB, stationC);
+        addStops(line2, stationB, stationC);
+
+        model = new ModelData(new ArrayList<>(List.of(line1)), new ArrayList<>(List.of(stationA, stationB, stationC)));
+    }
+
+    @Test
+    public void testCompact_denseIds() {
+        ModelCompactor.Compaction compaction = ModelCompactor.compact(model);
+        ModelData compacted = compaction.getModel();
+
+        assertModel(compacted)
+                .hasExactStations("A", "B", "C")
+                .hasExactLines("1")
+                .hasLineWithExactStations("1", "A", "B", "C")
+                .hasSegmentWithExactLines("B", "C", "1", "2");
+
+        Assert.assertEquals(List.of(0, 1, 2), compacted.stations.stream().map(Station::getId).toList());
+        Assert.assertEquals(3, compacted.lines.get(0).getId());
+        Assert.assertEquals(4, compacted.stations.get(1).getStops().get(1).getLine().getId());
+        Assert.assertEquals(ModelValidator.validate(model), ModelValidator.validate(compacted));
+    }
+
+    @Test
+    public void testCompact_remapTable() {
+        ModelCompactor.Compaction compaction = ModelCompactor.compact(model);
+
+        Assert.assertEquals(0, compaction.getNewStationId(17));
+        Assert.assertEquals(1, compaction.getNewStationId(1000));
+        Assert.assertEquals(2, compaction.getNewStationId(-5));
+        Assert.assertEquals(3, compaction.getNewLineId(99999));
+        Assert.assertEquals(4, compaction.getNewLineId(Integer.MIN_VALUE));
+
+        Assert.assertEquals(-5, compaction.getOldStationId(2));
+        Assert.assertEquals(99999, compaction.getOldLineId(3));
+        Assert.assertEquals(Integer.MIN_VALUE, compaction.getOldLineId(4));
+
+        Assert.assertEquals(-1, compaction.getNewStationId(18));
+        Assert.assertEquals(-1, compaction.getNewLineId(17));
+        Assert.assertEquals(-1, compaction.getOldStationId(3));
+        Assert.assertEquals(-1, compaction.getOldLineId(2));
+    }
+
+    @Test
+    public void testCompact_originalUnchanged() {
+        ModelCompactor.Compaction compaction = ModelCompactor.compact(model);
+
+        Assert.assertNotSame(stationA, compaction.getModel().stations.get(0));
+        Assert.assertEquals(17, stationA.getId());
+        Assert.assertEquals(99999, line1.getId());
+        assertModel(model)
+                .hasExactStations("A", "B", "C")
+                .hasSegmentWithExactLines("B", "C", "1", "2");
+    }
+
+    @Test
+    public void testCompact_generatedNetworkAfterChurn() {
+        ModelData generated = new NetworkGenerator(3).stations(2000).lines(150).stopsPerLine(5, 30).overlap(0.5).generate();
+        generated.lines.removeIf(line -> line.getId() % 3 == 0);
+        for(Station station : generated.stations) {
+            station.getStops().removeIf(stop -> !generated.lines.contains(stop.getLine()));
+        }
+        generated.stations.removeIf(station -> station.getStops().isEmpty());
+
+        ModelCompactor.Compaction compaction = ModelCompactor.compact(generated);
+        ModelData compacted = compaction.getModel();
+
+        assertModel(compacted)
+                .hasStations(generated.stations.size())
+                .hasLines(generated.lines.size())
+                .isConsistent();
+        for(int s = 0; s < compacted.stations.size(); s++) {
+            Assert.assertEquals(s, compacted.stations.get(s).getId());
+            Assert.assertEquals(s, compaction.getNewStationId(generated.stations.get(s).getId()));
+        }
+        for(int l = 0; l < compacted.lines.size(); l++) {
+            Assert.assertEquals(compacted.stations.size() + l, compacted.lines.get(l).getId());
+            Assert.assertEquals(generated.lines.get(l).getId(), compaction.getOldLineId(compacted.lines.get(l).getId()));
+        }
+    }
+
+    private static void addStops(Line line, Station... stations) {
+        for(Station station : stations) {
+            Stop stop = new Stop(station, line);
+            station.getStops().add(stop);
+            line.getStops().add(stop);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package org.openmetromaps.maps;
+
+import org.openmetromaps.maps.model.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deep copy of a {@link ModelData} that keeps the Station - Stop - Line back-references
+ * intact, so a fixture can be built once and forked for every scenario.
+ *
+ * Stations and lines are addressed by their position in the copy, found through an id
+ * index built once per copy, which requires station ids and line ids to be unique within
+ * their kind. Every stop object is copied exactly once, and points at the copies of its
+ * own station and line, so broken references are copied as they are. Coordinates are
+ * immutable and shared between the original and the copy.
+ */
+public final class ModelCopier {
+
+    private ModelCopier() {
+    }
+
+    public static ModelData copy(ModelData model) {
+        return copy(model, false).model;
+    }
+
+    /**
+     * Copies the model. With renumber, the copied stations get the ids 0..n-1 and the
+     * copied lines the ids n..n+m-1 in the order of the copy, registered objects first,
+     * like the test maps and the {@link NetworkGenerator} number them.
+     */
+    static Copy copy(ModelData model, boolean renumber) {
+        List<Line> lines = new ArrayList<>(model.lines.size());
+        List<Station> stations = new ArrayList<>(model.stations.size());
+        IdIndex lineIndex = IdIndex.forLines(model);
+        IdIndex stationIndex = IdIndex.forStations(model);
+        for(Line line : model.lines) {
+            add(lines, lineIndex, line, line.getId(), true, "line");
+        }
+        for(Station station : model.stations) {
+            add(stations, stationIndex, station, station.getId(), true, "station");
+        }
+
+        // Lines and stations that are only reachable through stops, however indirectly
+        // (e.g. a line that is not registered in model.lines yet), are copied as well,
+        // after the registered ones. Both lists are scanned until neither grows.
+        int lineStopCount = 0;
+        int nextLine = 0;
+        int nextStation = 0;
+        while(nextLine < lines.size() || nextStation < stations.size()) {
+            for(; nextLine < lines.size(); nextLine++) {
+                List<Stop> stops = lines.get(nextLine).getStops();
+                for(Stop stop : stops) {
+                    add(stations, stationIndex, stop.getStation(), stop.getStation().getId(), false, "station");
+                    add(lines, lineIndex, stop.getLine(), stop.getLine().getId(), false, "line");
+                }
+                lineStopCount += stops.size();
+            }
+            for(; nextStation < stations.size(); nextStation++) {
+                for(Stop stop : stations.get(nextStation).getStops()) {
+                    add(lines, lineIndex, stop.getLine(), stop.getLine().getId(), false, "line");
+                    add(stations, stationIndex, stop.getStation(), stop.getStation().getId(), false, "station");
+                }
+            }
+        }
+
+        Station[] stationCopies = new Station[stations.size()];
+        for(int s = 0; s < stationCopies.length; s++) {
+            Station station = stations.get(s);
+            stationCopies[s] = new Station(renumber ? s : station.getId(), station.getName(), station.getLocation(), new ArrayList<>(station.getStops().size()));
+        }
+        Line[] lineCopies = new Line[lines.size()];
+        for(int l = 0; l < lineCopies.length; l++) {
+            Line line = lines.get(l);
+            lineCopies[l] = new Line(renumber ? stationCopies.length + l : line.getId(), line.getName(), line.getColor(), line.isCircular(), new ArrayList<>(line.getStops().size()));
+        }
+
+        // The stops listed by lines are filed per station in flat arrays: slots
+        // firstSlot[s]..firstSlot[s + 1] hold the line, position and copy of every stop
+        // at station s, so each stop listed again can be resolved to the copy of exactly
+        // that stop object.
+        int[] firstSlot = new int[stationCopies.length + 1];
+        for(Line line : lines) {
+            for(Stop stop : line.getStops()) {
+                firstSlot[stationIndex.get(stop.getStation().getId()) + 1]++;
+            }
+        }
+        for(int s = 0; s < stationCopies.length; s++) {
+            firstSlot[s + 1] += firstSlot[s];
+        }
+        int[] nextSlot = firstSlot.clone();
+        int[] slotLine = new int[lineStopCount];
+        int[] slotPosition = new int[lineStopCount];
+        Stop[] slotCopy = new Stop[lineStopCount];
+
+        for(int l = 0; l < lineCopies.length; l++) {
+            List<Stop> stops = lines.get(l).getStops();
+            for(int position = 0; position < stops.size(); position++) {
+                Stop stop = stops.get(position);
+                int station = stationIndex.get(stop.getStation().getId());
+                Stop stopCopy = findCopy(stop, lines, firstSlot[station], nextSlot[station], slotLine, slotPosition, slotCopy);
+                if(stopCopy == null) {
+                    stopCopy = new Stop(stationCopies[station], lineCopies[lineIndex.get(stop.getLine().getId())]);
+                }
+                lineCopies[l].getStops().add(stopCopy);
+
+                int slot = nextSlot[station]++;
+                slotLine[slot] = l;
+                slotPosition[slot] = position;
+                slotCopy[slot] = stopCopy;
+            }
+        }
+
+        // Stops that no line lists are rare; they keep their identity through a map.
+        Map<Stop, Stop> unlistedCopies = new IdentityHashMap<>();
+        for(int s = 0; s < stationCopies.length; s++) {
+            for(Stop stop : stations.get(s).getStops()) {
+                int station = stationIndex.get(stop.getStation().getId());
+                Stop stopCopy = findCopy(stop, lines, firstSlot[station], firstSlot[station + 1], slotLine, slotPosition, slotCopy);
+                if(stopCopy == null) {
+                    stopCopy = unlistedCopies.computeIfAbsent(stop, unlisted ->
+                            new Stop(stationCopies[station], lineCopies[lineIndex.get(unlisted.getLine().getId())]));
+                }
+                stationCopies[s].getStops().add(stopCopy);
+            }
+        }
+
+        List<Line> copiedLines = new ArrayList<>(model.lines.size());
+        for(int l = 0; l < model.lines.size(); l++) {
+            copiedLines.add(lineCopies[l]);
+        }
+        List<Station> copiedStations = new ArrayList<>(model.stations.size());
+        for(int s = 0; s < model.stations.size(); s++) {
+            copiedStations.add(stationCopies[s]);
+        }
+        return new Copy(new ModelData(copiedLines, copiedStations), stations, lines);
+    }
+
+    /**
+     * A copied model together with every original station and line that was copied,
+     * including those only reachable through stops, at the position of its copy.
+     */
+    static final class Copy {
+
+        final ModelData model;
+        final List<Station> stations;
+        final List<Line> lines;
+
+        private Copy(ModelData model, List<Station> stations, List<Line> lines) {
+            this.model = model;
+            this.stations = stations;
+            this.lines = lines;
+        }
+    }
+
+    /**
+     * Finds the copy of a stop object among the slots of its own station, or null if no
+     * line lists it there. A station is served by a handful of lines, so the range is short.
+     */
+    private static Stop findCopy(Stop stop, List<Line> lines, int from, int to,
+                                 int[] slotLine, int[] slotPosition, Stop[] slotCopy) {
+        for(int slot = from; slot < to; slot++) {
+            if(lines.get(slotLine[slot]).getStops().get(slotPosition[slot]) == stop) {
+                return slotCopy[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Appends an object unless its id is already known. Registered objects come from the
+     * model's own lists and must not repeat; objects reached through stops may.
+     */
+    private static <T> void add(List<T> all, IdIndex index, T object, int id, boolean registered, String kind) {
+        int position = index.get(id);
+        if(position < 0) {
+            index.put(id, all.size());
+            all.add(object);
+        } else if(registered || all.get(position) != object) {
+            throw new IllegalArgumentException("Duplicate " + kind + " id in model: " + id);
+        }
+    }
+
+    /**
+     * Maps ids to positions. The ids of the registered objects use a plain array if they
+     * span a range of at most a few times their number; sparse ids, e.g. after heavy churn,
+     * and ids of objects only reached through stops outside that range use a hash map.
+     */
+    private static final class IdIndex {
+
+        private final int min;
+        private final int[] dense;
+        private final Map<Integer, Integer> sparse;
+
+        private IdIndex(long min, long max, int count) {
+            if(max >= min && max - min < 4L * count + 64) {
+                this.min = (int) min;
+                this.dense = new int[(int) (max - min + 1)];
+                this.sparse = new HashMap<>();
+            } else {
+                this.min = 0;
+                this.dense = null;
+                this.sparse = new HashMap<>(count * 2);
+            }
+        }
+
+        static IdIndex forLines(ModelData model) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for(Line line : model.lines) {
+                min = Math.min(min, line.getId());
+                max = Math.max(max, line.getId());
+            }
+            return new IdIndex(min, max, model.lines.size());
+        }
+
+        static IdIndex forStations(ModelData model) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for(Station station : model.stations) {
+                min = Math.min(min, station.getId());
+                max = Math.max(max, station.getId());
+            }
+            return new IdIndex(min, max, model.stations.size());
+        }
+
+        int get(int id) {
+            long index = (long) id - min;
+            if(dense != null && index >= 0 && index < dense.length) {
+                return dense[(int) index] - 1;
+            }
+            Integer position = sparse.get(id);
+            return position == null ? -1 : position;
+        }
+
+        void put(int id, int position) {
+            long index = (long) id - min;
+            if(dense != null && index >= 0 && index < dense.length) {
+                dense[(int) index] = position + 1;
+            } else {
+                sparse.put(id, position);
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package org.openmetromaps.maps;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmetromaps.maps.model.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.openmetromaps.maps.ModelAsserter.assertModel;
+
+public class ModelCopierUnitTests {
+
+    ModelData model;
+
+    Station stationA;
+    Station stationB;
+    Station stationC;
+    Station stationD;
+
+    Line line1;
+    Line line2;
+    Line line3;
+    Line line4;
+
+    /* CREATE MAP
+
+    A       B       C       D
+    * ------------- *               1
+            * ----- *               2
+            * ------------- *       3
+    * --------------------- *       4
+
+    */
+    @Before
+    public void createMap() {
+        stationA = new Station(0, "A", new Coordinate(47.4891, 19.0614), new ArrayList<>());
+        stationB = new Station(1, "B", new Coordinate(47.4891, 19.0714), new ArrayList<>());
+        stationC = new Station(2, "C", new Coordinate(47.4891, 19.0814), new ArrayList<>());
+        stationD = new Station(3, "D", new Coordinate(47.4891, 19.0914), new ArrayList<>());
+
+        line1 = new Line(4, "1", "#009EE3", false, new ArrayList<>());
+        line2 = new Line(5, "2", "#009EE3", false, new ArrayList<>());
+        line3 = new Line(6, "3", "#009EE3", false, new ArrayList<>());
+        line4 = new Line(7, "4", "#009EE3", false, new ArrayList<>());
+
+        addStops(line1, stationA, stationB, stationC);
+        addStops(line2, stationB, stationC);
+        addStops(line3, stationB, stationC, stationD);
+        addStops(line4, stationA, stationB, stationC, stationD);
+
+        model = new ModelData(
+                new ArrayList<>(List.of(line1, line2, line3, line4)),
+                new ArrayList<>(List.of(stationA, stationB, stationC, stationD))
+        );
+    }
+
+    /* ASSERT COPY
+    A       B       C       D
+    * ----- *                       1
+                    * ----- *       3
+    * ----- *                       4-1
+                    * ----- *       4-2
+            * ----- *               P-1
+
+    ORIGINAL unchanged
+     */
+    @Test
+    public void testCopy_forkIsIndependent() {
+        ModelData copy = ModelCopier.copy(model);
+
+        ReplacementServices.createReplacementService(copy, List.of(copy.stations.get(1), copy.stations.get(2)), List.copyOf(copy.lines));
+
+        assertModel(copy)
+                .hasExactStations("A", "B", "C", "D")
+                .hasExactLines("1", "3", "4-1", "4-2", "P-1")
+                .hasLineWithExactStations("1", "A", "B")
+                .hasLineWithExactStations("P-1", "B", "C")
+                .isConsistent();
+
+        assertModel(model)
+                .hasExactStations("A", "B", "C", "D")
+                .hasExactLines("1", "2", "3", "4")
+                .hasStationWithExactLines("B", "1", "2", "3", "4")
+                .hasLineWithExactStations("1", "A", "B", "C")
+                .hasLineWithExactStations("2", "B", "C")
+                .hasLineWithExactStations("3", "B", "C", "D")
+                .hasLineWithExactStations("4", "A", "B", "C", "D")
+                .isConsistent();
+    }
+
+    @Test
+    public void testCopy_sharesNoModelObjects() {
+        ModelData copy = ModelCopier.copy(model);
+
+        assertModel(copy)
+                .hasExactStations("A", "B", "C", "D")
+                .hasExactLines("1", "2", "3", "4")
+                .hasStationWithExactLines("C", "1", "2", "3", "4")
+                .hasLineWithExactStations("3", "B", "C", "D")
+                .isConsistent();
+
+        Set<Object> originals = Collections.newSetFromMap(new IdentityHashMap<>());
+        originals.addAll(model.stations);
+        originals.addAll(model.lines);
+        model.lines.forEach(line -> originals.addAll(line.getStops()));
+
+        for(Station station : copy.stations) {
+            Assert.assertFalse("Station (" + station.getName() + ") was not copied", originals.contains(station));
+            Assert.assertSame(
+                    "Coordinates are shared",
+                    model.stations.get(copy.stations.indexOf(station)).getLocation(),
+                    station.getLocation()
+            );
+        }
+        for(Line line : copy.lines) {
+            Assert.assertFalse("Line (" + line.getName() + ") was not copied", originals.contains(line));
+            for(Stop stop : line.getStops()) {
+                Assert.assertFalse("Stop of line (" + line.getName() + ") was not copied", originals.contains(stop));
+            }
+        }
+    }
+
+    /* Only line 1 is registered, like in the FourStationsMulti map */
+    @Test
+    public void testCopy_linesReachableThroughStops() {
+        model.lines.retainAll(List.of(line1));
+
+        ModelData copy = ModelCopier.copy(model);
+
+        assertModel(copy)
+                .hasExactLines("1")
+                .hasExactStations("A", "B", "C", "D");
+
+        Station copyB = copy.stations.get(1);
+        Assert.assertEquals(
+                List.of("1", "2", "3", "4"),
+                copyB.getStops().stream().map(stop -> stop.getLine().getName()).toList()
+        );
+        for(Stop stop : copyB.getStops()) {
+            Assert.assertTrue(
+                    "Line (" + stop.getLine().getName() + ") does not list the stop of B",
+                    stop.getLine().getStops().stream().anyMatch(lineStop -> lineStop == stop)
+            );
+        }
+    }
+
+    /* Circular line A - B - A, with A listing the return stop first */
+    @Test
+    public void testCopy_repeatedStopsKeepTheirIdentity() {
+        List<Stop> circularStops = new ArrayList<>();
+        Line circular = new Line(8, "5", "#009EE3", true, circularStops);
+        Stop first = new Stop(stationA, circular);
+        Stop middle = new Stop(stationB, circular);
+        Stop last = new Stop(stationA, circular);
+        circularStops.addAll(List.of(first, middle, last));
+        stationA.getStops().addAll(List.of(last, first));
+        stationB.getStops().add(middle);
+        model.lines.add(circular);
+
+        ModelData copy = ModelCopier.copy(model);
+
+        Line circularCopy = copy.lines.get(4);
+        List<Stop> copyAStops = copy.stations.get(0).getStops();
+        int size = copyAStops.size();
+        Assert.assertSame(circularCopy.getStops().get(2), copyAStops.get(size - 2));
+        Assert.assertSame(circularCopy.getStops().get(0), copyAStops.get(size - 1));
+        Assert.assertTrue(circularCopy.isCircular());
+        assertModel(copy).isConsistent();
+    }
+
+    @Test
+    public void testCopy_oneSidedStopStaysOneSided() {
+        Stop oneSided = new Stop(stationD, line2);
+        stationD.getStops().add(oneSided);
+
+        ModelData copy = ModelCopier.copy(model);
+
+        Stop copied = copy.stations.get(3).getStops().get(2);
+        Assert.assertSame(copy.lines.get(1), copied.getLine());
+        Assert.assertFalse(copied.getLine().getStops().stream().anyMatch(stop -> stop == copied));
+        Assert.assertEquals(ModelValidator.validate(model), ModelValidator.validate(copy));
+    }
+
+    /* Station B lists a stop of station A on line 1 */
+    @Test
+    public void testCopy_foreignStopKeepsItsStation() {
+        Stop foreign = new Stop(stationA, line1);
+        stationB.getStops().add(foreign);
+
+        ModelData copy = ModelCopier.copy(model);
+
+        Stop copied = copy.stations.get(1).getStops().get(4);
+        Assert.assertSame(copy.stations.get(0), copied.getStation());
+        Assert.assertSame(copy.lines.get(0), copied.getLine());
+        Assert.assertFalse(ModelValidator.validate(model).isEmpty());
+        Assert.assertEquals(ModelValidator.validate(model), ModelValidator.validate(copy));
+    }
+
+    /* CREATE MAP, with only line 1 and stations A and B registered
+
+    A       B       C       D       E
+    * ------------- *                       1
+            * ----- *                       2
+            * ------------- *               3
+    * --------------------- *               4
+                            * ----- *       5
+
+    D is only reached through line 3 or 4, and E through line 5 at D
+    */
+    @Test
+    public void testCopy_stationsReachableThroughUnregisteredLines() {
+        Station stationE = new Station(8, "E", new Coordinate(47.4891, 19.1014), new ArrayList<>());
+        Line line5 = new Line(9, "5", "#009EE3", false, new ArrayList<>());
+        addStops(line5, stationD, stationE);
+        model.lines.retainAll(List.of(line1));
+        model.stations.retainAll(List.of(stationA, stationB));
+
+        ModelData copy = ModelCopier.copy(model);
+
+        assertModel(copy)
+                .hasExactLines("1")
+                .hasExactStations("A", "B");
+
+        Line copy4 = copy.stations.get(0).getStops().get(1).getLine();
+        Station copyD = copy4.getStops().get(3).getStation();
+        Line copy5 = copyD.getStops().get(2).getLine();
+        Assert.assertEquals("4", copy4.getName());
+        Assert.assertEquals("D", copyD.getName());
+        Assert.assertEquals(
+                List.of("D", "E"),
+                copy5.getStops().stream().map(stop -> stop.getStation().getName()).toList()
+        );
+        Assert.assertSame(copyD, copy5.getStops().get(0).getStation());
+        Assert.assertSame(copy5.getStops().get(1), copy5.getStops().get(1).getStation().getStops().get(0));
+        Assert.assertEquals(ModelValidator.validate(model), ModelValidator.validate(copy));
+    }
+
+    @Test
+    public void testCopy_sparseIds() {
+        ModelData sparse = new ModelData(new ArrayList<>(), new ArrayList<>());
+        Station first = new Station(0, "A", new Coordinate(47.4891, 19.0614), new ArrayList<>());
+        Station second = new Station(Integer.MAX_VALUE, "B", new Coordinate(47.4891, 19.0714), new ArrayList<>());
+        Line line = new Line(Integer.MIN_VALUE, "1", "#009EE3", false, new ArrayList<>());
+        addStops(line, first, second);
+        sparse.stations.addAll(List.of(first, second));
+        sparse.lines.add(line);
+
+        ModelData copy = ModelCopier.copy(sparse);
+
+        assertModel(copy)
+                .hasExactStations("A", "B")
+                .hasLineWithExactStations("1", "A", "B")
+                .isConsistent();
+        Assert.assertEquals(Integer.MAX_VALUE, copy.stations.get(1).getId());
+    }
+
+    @Test
+    public void testCopy_rejectsDuplicateIds() {
+        model.stations.add(new Station(0, "E", new Coordinate(47.4891, 19.1014), new ArrayList<>()));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> ModelCopier.copy(model));
+    }
+
+    @Test
+    public void testCopy_rejectsDuplicateLines() {
+        model.lines.add(line1);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> ModelCopier.copy(model));
+    }
+
+    private static void addStops(Line line, Station... stations) {
+        for(Station station : stations) {
+            Stop stop = new Stop(station, line);
+            station.getStops().add(stop);
+            line.getStops().add(stop);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.openmetromaps.maps;
+
+import org.openmetromaps.maps.model.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Checks the structural invariants of a {@link ModelData}:
+ * <ul>
+ *     <li>every stop of a line points back to that line and is listed by its station,</li>
+ *     <li>every stop of a station points back to that station and is listed by its line,</li>
+ *     <li>stops only reference stations and lines registered in the model,</li>
+ *     <li>there are no empty lines, stations without stops, or duplicate objects or ids.</li>
+ * </ul>
+ *
+ * The lookup sets are built in one sequential pass; lines and stations are then checked
+ * in parallel against them, so the whole validation is linear in the number of stops.
+ * Every listed stop is indexed by the station and by the line listing it, so a stop only
+ * counts as listed if its own station, and its own line, list it.
+ */
+public final class ModelValidator {
+
+    private ModelValidator() {
+    }
+
+    /**
+     * Returns a description of every violated invariant, or an empty list for a
+     * consistent model.
+     */
+    public static List<String> validate(ModelData model) {
+        List<String> problems = new ArrayList<>();
+
+        Set<Station> stations = identitySet(model.stations.size());
+        Set<Line> lines = identitySet(model.lines.size());
+        List<Station> uniqueStations = new ArrayList<>(model.stations.size());
+        List<Line> uniqueLines = new ArrayList<>(model.lines.size());
+        Map<Stop, Station> stationListers = new IdentityHashMap<>(model.stations.size() * 2);
+        Map<Stop, Line> lineListers = new IdentityHashMap<>(model.lines.size() * 8);
+
+        Map<Integer, Station> stationIds = new HashMap<>(model.stations.size() * 2);
+        for(Station station : model.stations) {
+            if(!stations.add(station)) {
+                problems.add("Station (" + station.getName() + ") is listed more than once in the model");
+                continue;
+            }
+            uniqueStations.add(station);
+            Station other = stationIds.putIfAbsent(station.getId(), station);
+            if(other != null) {
+                problems.add("Stations (" + other.getName() + ") and (" + station.getName() + ") share the id " + station.getId());
+            }
+            for(Stop stop : station.getStops()) {
+                // The stop's own station wins over stations listing it as a foreign stop.
+                if(stop.getStation() == station || !stationListers.containsKey(stop)) {
+                    stationListers.put(stop, station);
+                }
+            }
+        }
+
+        Map<Integer, Line> lineIds = new HashMap<>(model.lines.size() * 2);
+        for(Line line : model.lines) {
+            if(!lines.add(line)) {
+                problems.add("Line (" + line.getName() + ") is listed more than once in the model");
+                continue;
+            }
+            uniqueLines.add(line);
+            Line other = lineIds.putIfAbsent(line.getId(), line);
+            if(other != null) {
+                problems.add("Lines (" + other.getName() + ") and (" + line.getName() + ") share the id " + line.getId());
+            }
+            for(Stop stop : line.getStops()) {
+                if(stop.getLine() == line || !lineListers.containsKey(stop)) {
+                    lineListers.put(stop, line);
+                }
+            }
+        }
+
+        Stream<String> lineProblems = uniqueLines.parallelStream()
+                .flatMap(line -> validateLine(line, stations, stationListers).stream());
+        Stream<String> stationProblems = uniqueStations.parallelStream()
+                .flatMap(station -> validateStation(station, lines, lineListers).stream());
+
+        problems.addAll(Stream.concat(lineProblems, stationProblems).collect(Collectors.toList()));
+        return problems;
+    }
+
+    private static List<String> validateLine(Line line, Set<Station> stations, Map<Stop, Station> stationListers) {
+        List<String> problems = new ArrayList<>(0);
+        if(line.getStops().isEmpty()) {
+            problems.add("Line (" + line.getName() + ") has no stops");
+        }
+
+        Set<Stop> seen = identitySet(line.getStops().size());
+        for(Stop stop : line.getStops()) {
+            String station = stop.getStation().getName();
+            if(!seen.add(stop)) {
+                problems.add("Line (" + line.getName() + ") lists the stop at Station (" + station + ") more than once");
+            }
+            if(stop.getLine() != line) {
+                problems.add("Line (" + line.getName() + ") lists a stop of Line (" + stop.getLine().getName() + ") at Station (" + station + ")");
+            }
+            if(!stations.contains(stop.getStation())) {
+                problems.add("Line (" + line.getName() + ") stops at Station (" + station + ") which is not in the model");
+            } else if(stationListers.get(stop) != stop.getStation()) {
+                problems.add("Line (" + line.getName() + ") stops at Station (" + station + ") but the station does not list the stop");
+            }
+        }
+        return problems;
+    }
+
+    private static List<String> validateStation(Station station, Set<Line> lines, Map<Stop, Line> lineListers) {
+        List<String> problems = new ArrayList<>(0);
+        if(station.getStops().isEmpty()) {
+            problems.add("Station (" + station.getName() + ") has no stops");
+        }
+
+        Set<Stop> seen = identitySet(station.getStops().size());
+        for(Stop stop : station.getStops()) {
+            String line = stop.getLine().getName();
+            if(!seen.add(stop)) {
+                problems.add("Station (" + station.getName() + ") lists the stop of Line (" + line + ") more than once");
+            }
+            if(stop.getStation() != station) {
+                problems.add("Station (" + station.getName() + ") lists a stop of Station (" + stop.getStation().getName() + ") on Line (" + line + ")");
+            }
+            if(!lines.contains(stop.getLine())) {
+                problems.add("Station (" + stop.getStation().getName() + ") is served by Line (" + line + ") which is not in the model");
+            } else if(lineListers.get(stop) != stop.getLine()) {
+                problems.add("Station (" + stop.getStation().getName() + ") is served by Line (" + line + ") but the line does not list the stop");
+            }
+        }
+        return problems;
+    }
+
+    private static <T> Set<T> identitySet(int expectedSize) {
+        return Collections.newSetFromMap(new IdentityHashMap<>(expectedSize));
+    }
+}
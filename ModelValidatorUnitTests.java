@@ -0,0 +1,174 @@
+package org.openmetromaps.maps;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmetromaps.maps.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.openmetromaps.maps.ModelAsserter.assertModel;
+
+public class ModelValidatorUnitTests {
+
+    ModelData model;
+
+    Station stationA;
+    Station stationB;
+    Station stationC;
+
+    Line line1;
+    Line line2;
+
+    /* CREATE MAP
+
+    A       B       C
+    * ----- * ----- *       1
+            * ----- *       2
+
+    */
+    @Before
+    public void createMap() {
+        stationA = new Station(0, "A", new Coordinate(47.4891, 19.0614), new ArrayList<>());
+        stationB = new Station(1, "B", new Coordinate(47.4891, 19.0714), new ArrayList<>());
+        stationC = new Station(2, "C", new Coordinate(47.4891, 19.0814), new ArrayList<>());
+
+        line1 = new Line(3, "1", "#009EE3", false, new ArrayList<>());
+        line2 = new Line(4, "2", "#009EE3", false, new ArrayList<>());
+
+        addStop(stationA, line1);
+        addStop(stationB, line1);
+        addStop(stationC, line1);
+        addStop(stationB, line2);
+        addStop(stationC, line2);
+
+        model = new ModelData(new ArrayList<>(List.of(line1, line2)), new ArrayList<>(List.of(stationA, stationB, stationC)));
+    }
+
+    @Test
+    public void testValidate_consistentModel() {
+        Assert.assertEquals(List.of(), ModelValidator.validate(model));
+        assertModel(model).isConsistent();
+    }
+
+    @Test
+    public void testValidate_stopMissingOnLine() {
+        stationA.getStops().add(new Stop(stationA, line2));
+
+        assertProblems("Station (A) is served by Line (2) but the line does not list the stop");
+    }
+
+    @Test
+    public void testValidate_stopMissingOnStation() {
+        stationA.getStops().clear();
+
+        assertProblems(
+                "Line (1) stops at Station (A) but the station does not list the stop",
+                "Station (A) has no stops"
+        );
+    }
+
+    @Test
+    public void testValidate_foreignStops() {
+        Stop foreign = new Stop(stationA, line2);
+        line1.getStops().add(foreign);
+        stationB.getStops().add(foreign);
+
+        assertProblems(
+                "Line (1) lists a stop of Line (2) at Station (A)",
+                "Line (1) stops at Station (A) but the station does not list the stop",
+                "Station (B) lists a stop of Station (A) on Line (2)",
+                "Station (A) is served by Line (2) but the line does not list the stop"
+        );
+    }
+
+    @Test
+    public void testValidate_stopListedByAnotherStation() {
+        Stop stop = new Stop(stationA, line1);
+        line1.getStops().add(stop);
+        stationB.getStops().add(stop);
+
+        assertProblems(
+                "Line (1) stops at Station (A) but the station does not list the stop",
+                "Station (B) lists a stop of Station (A) on Line (1)"
+        );
+    }
+
+    @Test
+    public void testValidate_stopListedByAnotherLine() {
+        Stop stop = new Stop(stationB, line1);
+        line2.getStops().add(stop);
+        stationB.getStops().add(stop);
+
+        assertProblems(
+                "Line (2) lists a stop of Line (1) at Station (B)",
+                "Station (B) is served by Line (1) but the line does not list the stop"
+        );
+    }
+
+    @Test
+    public void testValidate_referencesOutsideOfModel() {
+        model.stations.remove(stationA);
+        model.lines.remove(line2);
+
+        assertProblems(
+                "Line (1) stops at Station (A) which is not in the model",
+                "Station (B) is served by Line (2) which is not in the model",
+                "Station (C) is served by Line (2) which is not in the model"
+        );
+    }
+
+    @Test
+    public void testValidate_duplicates() {
+        Station stationD = new Station(0, "D", new Coordinate(47.4891, 19.0914), new ArrayList<>());
+        addStop(stationD, line2);
+        model.stations.add(stationD);
+        model.stations.add(stationB);
+        model.lines.add(new Line(4, "3", "#009EE3", false, new ArrayList<>()));
+        line1.getStops().add(line1.getStops().get(0));
+
+        assertProblems(
+                "Stations (A) and (D) share the id 0",
+                "Station (B) is listed more than once in the model",
+                "Lines (2) and (3) share the id 4",
+                "Line (1) lists the stop at Station (A) more than once",
+                "Line (3) has no stops"
+        );
+    }
+
+    @Test
+    public void testValidate_emptyLineAndStation() {
+        model.lines.add(new Line(5, "3", "#009EE3", false, new ArrayList<>()));
+        model.stations.add(new Station(6, "D", new Coordinate(47.4891, 19.0914), new ArrayList<>()));
+
+        assertProblems(
+                "Line (3) has no stops",
+                "Station (D) has no stops"
+        );
+    }
+
+    @Test
+    public void testIsConsistent_reportsProblems() {
+        stationA.getStops().clear();
+
+        AssertionError error = Assert.assertThrows(AssertionError.class, () -> assertModel(model).isConsistent());
+
+        Assert.assertEquals(
+                "The model is inconsistent (2 problems): " +
+                        "Line (1) stops at Station (A) but the station does not list the stop; " +
+                        "Station (A) has no stops",
+                error.getMessage()
+        );
+    }
+
+    private void assertProblems(String... problems) {
+        Assert.assertEquals(List.of(problems), ModelValidator.validate(model));
+    }
+
+    private static void addStop(Station station, Line line) {
+        Stop stop = new Stop(station, line);
+        station.getStops().add(stop);
+        line.getStops().add(stop);
+    }
+}
@@ -0,0 +1,270 @@
+package org.openmetromaps.maps;
+
+import org.openmetromaps.maps.model.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded, deterministic generator of synthetic networks for scale and soak tests.
+ * The same seed and settings always produce the same stations, lines and stop order.
+ *
+ * Every station gets at least one stop, so the lines must be able to hold at least one
+ * stop per station. Stations are named "S0".."Sn-1" and get ids 0..n-1, lines are named
+ * "1".."m" and get ids n..n+m-1, mirroring how the hand-built test maps number their
+ * objects.
+ */
+public class NetworkGenerator {
+
+    private final long seed;
+
+    private int stationCount = 100;
+    private int lineCount = 10;
+    private int minStopsPerLine = 5;
+    private int maxStopsPerLine = 20;
+    private double overlap = 0.0;
+    private double circularRatio = 0.0;
+
+    private double centerLatitude = 47.4891;
+    private double centerLongitude = 19.0614;
+    private double spread = 0.1;
+
+    private String color = "#009EE3";
+
+    public NetworkGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public NetworkGenerator stations(int count) {
+        if(count < 2) {
+            throw new IllegalArgumentException("At least two stations are needed: " + count);
+        }
+        this.stationCount = count;
+        return this;
+    }
+
+    public NetworkGenerator lines(int count) {
+        if(count < 0) {
+            throw new IllegalArgumentException("Line count must not be negative: " + count);
+        }
+        this.lineCount = count;
+        return this;
+    }
+
+    public NetworkGenerator stopsPerLine(int min, int max) {
+        if(min < 2 || max < min) {
+            throw new IllegalArgumentException("Invalid stops per line range: " + min + ".." + max);
+        }
+        this.minStopsPerLine = min;
+        this.maxStopsPerLine = max;
+        return this;
+    }
+
+    /**
+     * Probability that a line starts by running along a section of an earlier line,
+     * like lines 1-4 sharing B-C in the FourStationsMulti map.
+     */
+    public NetworkGenerator overlap(double overlap) {
+        this.overlap = checkRatio("overlap", overlap);
+        return this;
+    }
+
+    public NetworkGenerator circularRatio(double circularRatio) {
+        this.circularRatio = checkRatio("circularRatio", circularRatio);
+        return this;
+    }
+
+    /**
+     * Stations are placed uniformly in a square of +/- spread degrees around the center.
+     */
+    public NetworkGenerator spread(double centerLatitude, double centerLongitude, double spread) {
+        if(!(spread >= 0) || Double.isInfinite(spread)) {
+            throw new IllegalArgumentException("Spread must be a non-negative number of degrees: " + spread);
+        }
+        if(!(Math.abs(centerLatitude) + spread <= 90)) {
+            throw new IllegalArgumentException("Latitudes must stay within +/-90 degrees: " + centerLatitude + " +/- " + spread);
+        }
+        if(!(Math.abs(centerLongitude) + spread <= 180)) {
+            throw new IllegalArgumentException("Longitudes must stay within +/-180 degrees: " + centerLongitude + " +/- " + spread);
+        }
+        this.centerLatitude = centerLatitude;
+        this.centerLongitude = centerLongitude;
+        this.spread = spread;
+        return this;
+    }
+
+    public NetworkGenerator color(String color) {
+        if(color == null || !color.matches("#[0-9A-Fa-f]{6}")) {
+            throw new IllegalArgumentException("Color must be given as #RRGGBB: " + color);
+        }
+        this.color = color;
+        return this;
+    }
+
+    public ModelData generate() {
+        if((long) lineCount * maxStopsPerLine < stationCount) {
+            throw new IllegalStateException(
+                    lineCount + " lines of at most " + maxStopsPerLine + " stops cannot serve " + stationCount + " stations"
+            );
+        }
+        Random random = new Random(seed);
+
+        // First pass: lay out every line as station indexes only, so the stop lists
+        // can be allocated at their final size instead of growing one stop at a time.
+        int[][] lineStations = new int[lineCount][];
+        boolean[] circular = new boolean[lineCount];
+        boolean[][] shared = new boolean[lineCount][];
+        int[] stopsPerStation = new int[stationCount];
+        int[] onLine = new int[stationCount];
+
+        // Lines pick their fresh stations from a shuffled order first, so most stations are
+        // served by the layout itself; serveAllStations() gives the rest a stop.
+        int[] order = new int[stationCount];
+        for(int s = 0; s < stationCount; s++) {
+            int swap = random.nextInt(s + 1);
+            order[s] = order[swap];
+            order[swap] = s;
+        }
+        int nextInOrder = 0;
+
+        for(int l = 0; l < lineCount; l++) {
+            int length = Math.min(stationCount, minStopsPerLine + random.nextInt(maxStopsPerLine - minStopsPerLine + 1));
+            int[] stations = new int[length];
+            shared[l] = new boolean[length];
+            int size = 0;
+            int stamp = l + 1;
+
+            if(l > 0 && random.nextDouble() < overlap) {
+                int earlier = random.nextInt(l);
+                int[] section = lineStations[earlier];
+                int sharedLength = Math.min(length, 2 + random.nextInt(section.length - 1));
+                int start = random.nextInt(section.length - sharedLength + 1);
+                for(int i = 0; i < sharedLength; i++) {
+                    int station = section[start + i];
+                    onLine[station] = stamp;
+                    shared[earlier][start + i] = true;
+                    shared[l][size] = true;
+                    stations[size++] = station;
+                }
+            }
+
+            while(size < length) {
+                int station = nextInOrder < stationCount ? order[nextInOrder++] : random.nextInt(stationCount);
+                // Fall back to a linear probe so long lines on small networks still terminate.
+                while(onLine[station] == stamp) {
+                    station = station + 1 == stationCount ? 0 : station + 1;
+                }
+                onLine[station] = stamp;
+                stations[size++] = station;
+            }
+
+            for(int station : stations) {
+                stopsPerStation[station]++;
+            }
+            lineStations[l] = stations;
+            circular[l] = length > 2 && random.nextDouble() < circularRatio;
+        }
+
+        serveAllStations(lineStations, shared, stopsPerStation);
+
+        List<Station> stations = new ArrayList<>(stationCount);
+        for(int s = 0; s < stationCount; s++) {
+            Coordinate location = new Coordinate(
+                    centerLatitude + (random.nextDouble() * 2 - 1) * spread,
+                    centerLongitude + (random.nextDouble() * 2 - 1) * spread
+            );
+            stations.add(new Station(s, "S" + s, location, new ArrayList<>(stopsPerStation[s])));
+        }
+
+        // Second pass: materialise the stops and wire both back-references.
+        List<Line> lines = new ArrayList<>(lineCount);
+        for(int l = 0; l < lineCount; l++) {
+            int[] lineStationIndexes = lineStations[l];
+            List<Stop> lineStops = new ArrayList<>(lineStationIndexes.length);
+            Line line = new Line(stationCount + l, String.valueOf(l + 1), color, circular[l], lineStops);
+
+            for(int index : lineStationIndexes) {
+                Station station = stations.get(index);
+                Stop stop = new Stop(station, line);
+                station.getStops().add(stop);
+                lineStops.add(stop);
+            }
+
+            lines.add(line);
+            lineStations[l] = null;
+        }
+
+        return new ModelData(lines, stations);
+    }
+
+    /**
+     * Gives every station that no line reached a stop. They are first appended to lines
+     * below the maximum length, one per line in turn, and then swapped in for stops at
+     * stations served more than once, sparing the sections that lines share for as long
+     * as possible. As long as a station is left without a stop, the lines are at full
+     * length and hold more stops than there are served stations, so there is always
+     * another stop to swap.
+     */
+    private void serveAllStations(int[][] lineStations, boolean[][] shared, int[] stopsPerStation) {
+        int[] unserved = new int[stationCount];
+        int unservedCount = 0;
+        for(int s = 0; s < stationCount; s++) {
+            if(stopsPerStation[s] == 0) {
+                unserved[unservedCount++] = s;
+            }
+        }
+        if(unservedCount == 0) {
+            return;
+        }
+        int next = 0;
+
+        int maxLength = Math.min(stationCount, maxStopsPerLine);
+        int[] extra = new int[lineCount];
+        int appended = 0;
+        for(boolean added = true; added && appended < unservedCount; ) {
+            added = false;
+            for(int l = 0; l < lineCount && appended < unservedCount; l++) {
+                if(lineStations[l].length + extra[l] < maxLength) {
+                    extra[l]++;
+                    appended++;
+                    added = true;
+                }
+            }
+        }
+        for(int l = 0; l < lineCount; l++) {
+            if(extra[l] > 0) {
+                int length = lineStations[l].length;
+                lineStations[l] = Arrays.copyOf(lineStations[l], length + extra[l]);
+                shared[l] = Arrays.copyOf(shared[l], length + extra[l]);
+                for(int i = length; i < lineStations[l].length; i++) {
+                    int station = unserved[next++];
+                    lineStations[l][i] = station;
+                    stopsPerStation[station]++;
+                }
+            }
+        }
+
+        for(int pass = 0; pass < 2 && next < unservedCount; pass++) {
+            boolean spareShared = pass == 0;
+            for(int l = 0; l < lineCount && next < unservedCount; l++) {
+                int[] stations = lineStations[l];
+                for(int i = 0; i < stations.length && next < unservedCount; i++) {
+                    if(stopsPerStation[stations[i]] > 1 && !(spareShared && shared[l][i])) {
+                        stopsPerStation[stations[i]]--;
+                        stations[i] = unserved[next++];
+                        stopsPerStation[stations[i]]++;
+                    }
+                }
+            }
+        }
+    }
+
+    private static double checkRatio(String name, double value) {
+        if(!(value >= 0 && value <= 1)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1: " + value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,173 @@
+package org.openmetromaps.maps;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openmetromaps.maps.model.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.openmetromaps.maps.ModelAsserter.assertModel;
+
+public class NetworkGeneratorUnitTests {
+
+    private static NetworkGenerator generator(long seed) {
+        return new NetworkGenerator(seed)
+                .stations(500)
+                .lines(40)
+                .stopsPerLine(4, 25)
+                .overlap(0.5)
+                .circularRatio(0.2);
+    }
+
+    @Test
+    public void testGenerate_sameSeedSameNetwork() {
+        ModelData first = generator(7).generate();
+        ModelData second = generator(7).generate();
+
+        Assert.assertEquals(describe(first), describe(second));
+    }
+
+    @Test
+    public void testGenerate_differentSeedDifferentNetwork() {
+        Assert.assertNotEquals(describe(generator(7).generate()), describe(generator(8).generate()));
+    }
+
+    @Test
+    public void testGenerate_shape() {
+        for(long seed = 0; seed < 20; seed++) {
+            ModelData model = generator(seed).generate();
+
+            assertModel(model)
+                    .hasStations(500)
+                    .hasLines(40)
+                    .isConsistent();
+
+            for(int i = 0; i < model.stations.size(); i++) {
+                Station station = model.stations.get(i);
+                Assert.assertEquals("Station ids are not dense", i, station.getId());
+                Assert.assertEquals("S" + i, station.getName());
+            }
+
+            for(int i = 0; i < model.lines.size(); i++) {
+                Line line = model.lines.get(i);
+                List<Station> stations = line.getStops().stream().map(Stop::getStation).toList();
+
+                Assert.assertEquals("Line ids do not follow the stations", model.stations.size() + i, line.getId());
+                Assert.assertEquals(String.valueOf(i + 1), line.getName());
+                Assert.assertTrue(
+                        "Line (" + line.getName() + ") has " + stations.size() + " stops",
+                        stations.size() >= 4 && stations.size() <= 25
+                );
+                Assert.assertEquals(
+                        "Line (" + line.getName() + ") stops at a station twice",
+                        stations.size(), new HashSet<>(stations).size()
+                );
+            }
+        }
+    }
+
+    /* Ten lines of at most ten stops have to use every one of the 100 stations */
+    @Test
+    public void testGenerate_servesEveryStation() {
+        for(long seed = 0; seed < 20; seed++) {
+            ModelData model = new NetworkGenerator(seed)
+                    .stations(100)
+                    .lines(10)
+                    .stopsPerLine(2, 10)
+                    .overlap(0.5)
+                    .generate();
+
+            assertModel(model)
+                    .hasStations(100)
+                    .hasLines(10)
+                    .isConsistent();
+        }
+    }
+
+    @Test
+    public void testGenerate_rejectsTooFewStops() {
+        Assert.assertThrows(IllegalStateException.class, () -> new NetworkGenerator(5).stations(50000).generate());
+        Assert.assertThrows(IllegalStateException.class, () -> new NetworkGenerator(3)
+                .stations(1000)
+                .lines(2)
+                .stopsPerLine(5, 5)
+                .generate());
+    }
+
+    @Test
+    public void testGenerate_fullOverlapStartsOnEarlierLine() {
+        ModelData model = generator(11).overlap(1).generate();
+
+        Set<List<Station>> segments = new HashSet<>();
+        for(int i = 0; i < model.lines.size(); i++) {
+            List<Station> stations = model.lines.get(i).getStops().stream().map(Stop::getStation).toList();
+            if(i > 0) {
+                Assert.assertTrue(
+                        "Line (" + model.lines.get(i).getName() + ") does not start on an earlier line",
+                        segments.contains(stations.subList(0, 2))
+                );
+            }
+            for(int s = 0; s + 1 < stations.size(); s++) {
+                segments.add(List.copyOf(stations.subList(s, s + 2)));
+            }
+        }
+    }
+
+    @Test
+    public void testGenerate_circularRatio() {
+        Assert.assertTrue(generator(5).circularRatio(1).generate().lines.stream().allMatch(Line::isCircular));
+        Assert.assertTrue(generator(5).circularRatio(0).generate().lines.stream().noneMatch(Line::isCircular));
+    }
+
+    @Test
+    public void testGenerate_spreadAndColor() {
+        ModelData model = generator(9).spread(10, 20, 0.5).color("#FF0000").generate();
+
+        for(Station station : model.stations) {
+            Coordinate location = station.getLocation();
+            Assert.assertEquals(10, location.getLatitude(), 0.5);
+            Assert.assertEquals(20, location.getLongitude(), 0.5);
+        }
+        for(Line line : model.lines) {
+            Assert.assertEquals("#FF0000", line.getColor());
+        }
+    }
+
+    @Test
+    public void testSettings_rejectInvalidValues() {
+        NetworkGenerator generator = new NetworkGenerator(1);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> generator.stations(1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> generator.lines(-1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> generator.stopsPerLine(1, 5));
+        Assert.assertThrows(IllegalArgumentException.class, () -> generator.stopsPerLine(6, 5));
+        Assert.assertThrows(IllegalArgumentException.class, () -> generator.overlap(1.5));
+        Assert.assertThrows(IllegalArgumentException.class, () -> generator.overlap(Double.NaN));
+        Assert.assertThrows(IllegalArgumentException.class, () -> generator.circularRatio(-0.1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> generator.circularRatio(Double.NaN));
+        Assert.assertThrows(IllegalArgumentException.class, () -> generator.spread(47, 19, -1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> generator.spread(47, 19, Double.NaN));
+        Assert.assertThrows(IllegalArgumentException.class, () -> generator.spread(89.5, 19, 1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> generator.spread(47, 179.5, 1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> generator.color(null));
+        Assert.assertThrows(IllegalArgumentException.class, () -> generator.color("blue"));
+    }
+
+    private static List<String> describe(ModelData model) {
+        List<String> description = new ArrayList<>();
+        for(Station station : model.stations) {
+            description.add(station.getId() + " " + station.getName() + " " +
+                    station.getLocation().getLatitude() + " " + station.getLocation().getLongitude() + ": " +
+                    station.getStops().stream().map(stop -> stop.getLine().getName()).collect(Collectors.joining(", ")));
+        }
+        for(Line line : model.lines) {
+            description.add(line.getId() + " " + line.getName() + " " + line.getColor() + " " + line.isCircular() + ": " +
+                    line.getStops().stream().map(stop -> stop.getStation().getName()).collect(Collectors.joining(", ")));
+        }
+        return description;
+    }
+}
@@ -0,0 +1,136 @@
+package org.openmetromaps.maps;
+
+import org.openmetromaps.maps.model.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Removes replacement lines ("P-1", "P-2", ... or "P1", "P2", ...) that only run along
+ * another replacement line, which happens when overlapping closures are issued one by one.
+ *
+ * A replacement line is redundant when its stations appear, in either direction, as a
+ * contiguous run of a longer replacement line, or of an identical one that comes first in
+ * model.lines. Lines are checked from the longest down; a candidate is looked up through
+ * the index of its first segment over the lines kept so far and compared stop by stop, so
+ * a pass is linear in the number of stops for lines that share few segments. Circular
+ * lines and regular lines are left alone.
+ */
+public final class ReplacementLineConsolidator {
+
+    private static final Pattern REPLACEMENT_NAME = Pattern.compile("P-?\\d+");
+
+    private ReplacementLineConsolidator() {
+    }
+
+    /**
+     * Removes redundant replacement lines from the model and their stops from the
+     * stations, and returns them in model order.
+     */
+    public static List<Line> consolidate(ModelData model) {
+        Map<Station, Integer> stationKeys = new IdentityHashMap<>();
+        List<Line> candidates = new ArrayList<>();
+        List<int[]> sequences = new ArrayList<>();
+        for(Line line : model.lines) {
+            if(line.isCircular() || line.getStops().size() < 2 || !REPLACEMENT_NAME.matcher(line.getName()).matches()) {
+                continue;
+            }
+            List<Stop> stops = line.getStops();
+            int[] sequence = new int[stops.size()];
+            for(int i = 0; i < sequence.length; i++) {
+                sequence[i] = stationKeys.computeIfAbsent(stops.get(i).getStation(), station -> stationKeys.size());
+            }
+            candidates.add(line);
+            sequences.add(sequence);
+        }
+
+        // Longest first; the sort is stable, so identical lines keep their model order.
+        Integer[] order = new Integer[candidates.size()];
+        for(int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer i) -> -sequences.get(i).length));
+
+        // Segment of two stations, in either direction -> kept line and position of
+        // every stop where a kept line runs along it.
+        Map<Long, List<int[]>> segments = new HashMap<>();
+        Set<Line> redundant = Collections.newSetFromMap(new IdentityHashMap<>());
+        for(int candidate : order) {
+            int[] sequence = sequences.get(candidate);
+            List<int[]> occurrences = segments.get(segmentKey(sequence[0], sequence[1]));
+            if(occurrences != null && isContained(sequence, occurrences, sequences)) {
+                redundant.add(candidates.get(candidate));
+                continue;
+            }
+            for(int i = 0; i + 1 < sequence.length; i++) {
+                segments.computeIfAbsent(segmentKey(sequence[i], sequence[i + 1]), k -> new ArrayList<>(2)).add(new int[] {candidate, i});
+            }
+        }
+        if(redundant.isEmpty()) {
+            return List.of();
+        }
+
+        List<Line> removed = new ArrayList<>(redundant.size());
+        for(Line line : model.lines) {
+            if(redundant.contains(line)) {
+                removed.add(line);
+            }
+        }
+        model.lines.removeIf(redundant::contains);
+        Set<Station> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+        for(Line line : removed) {
+            for(Stop stop : line.getStops()) {
+                if(touched.add(stop.getStation())) {
+                    stop.getStation().getStops().removeIf(stationStop -> redundant.contains(stationStop.getLine()));
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Whether the sequence runs along one of the kept lines starting at an occurrence of
+     * its first segment, forwards or backwards.
+     */
+    private static boolean isContained(int[] sequence, List<int[]> occurrences, List<int[]> sequences) {
+        for(int[] occurrence : occurrences) {
+            int[] kept = sequences.get(occurrence[0]);
+            int position = occurrence[1];
+            if(kept[position] == sequence[0]) {
+                if(matches(sequence, kept, position, 1)) {
+                    return true;
+                }
+            } else if(matches(sequence, kept, position + 1, -1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(int[] sequence, int[] kept, int start, int step) {
+        int end = start + step * (sequence.length - 1);
+        if(end < 0 || end >= kept.length) {
+            return false;
+        }
+        for(int i = 0; i < sequence.length; i++) {
+            if(kept[start + step * i] != sequence[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long segmentKey(int station1, int station2) {
+        int low = Math.min(station1, station2);
+        int high = Math.max(station1, station2);
+        return ((long) low << 32) | (high & 0xFFFFFFFFL);
+    }
+}
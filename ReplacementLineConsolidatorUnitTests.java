@@ -0,0 +1,128 @@
+package org.openmetromaps.maps;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmetromaps.maps.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.openmetromaps.maps.ModelAsserter.assertModel;
+
+public class ReplacementLineConsolidatorUnitTests {
+
+    ModelData model;
+
+    Station stationA;
+    Station stationB;
+    Station stationC;
+    Station stationD;
+
+    Line line1;
+
+    /* CREATE MAP
+
+    A       B       C       D
+    * ----- * ----- * ----- *       1
+
+    */
+    @Before
+    public void createMap() {
+        stationA = new Station(0, "A", new Coordinate(47.4891, 19.0614), new ArrayList<>());
+        stationB = new Station(1, "B", new Coordinate(47.4891, 19.0714), new ArrayList<>());
+        stationC = new Station(2, "C", new Coordinate(47.4891, 19.0814), new ArrayList<>());
+        stationD = new Station(3, "D", new Coordinate(47.4891, 19.0914), new ArrayList<>());
+
+        line1 = addLine(4, "1", stationA, stationB, stationC, stationD);
+
+        model = new ModelData(
+                new ArrayList<>(List.of(line1)),
+                new ArrayList<>(List.of(stationA, stationB, stationC, stationD))
+        );
+    }
+
+    /* CREATE MAP
+    A       B       C       D
+    * ----- * ----- * ----- *       1
+            * ----- *               P-1
+            * ----- *               P-2 (from C to B)
+    * ----- * ----- *               P-3
+            * ----- * ----- *       P-4 (from D to B)
+    * ----- * ----- * ----- *       P-5
+    * ------------- *               P-6 (A to C without stopping at B)
+
+    ASSERT MAP
+    A       B       C       D
+    * ----- * ----- * ----- *       1
+    * ----- * ----- * ----- *       P-5
+    * ------------- *               P-6
+     */
+    @Test
+    public void testConsolidate_nestedLines() {
+        Line p1 = addLine(5, "P-1", stationB, stationC);
+        Line p2 = addLine(6, "P-2", stationC, stationB);
+        Line p3 = addLine(7, "P-3", stationA, stationB, stationC);
+        Line p4 = addLine(8, "P-4", stationD, stationC, stationB);
+        addLine(9, "P-5", stationA, stationB, stationC, stationD);
+        addLine(10, "P-6", stationA, stationC);
+
+        List<Line> removed = ReplacementLineConsolidator.consolidate(model);
+
+        Assert.assertEquals(List.of(p1, p2, p3, p4), removed);
+        assertModel(model)
+                .hasExactLines("1", "P-5", "P-6")
+                .hasStationWithExactLines("A", "1", "P-5", "P-6")
+                .hasStationWithExactLines("B", "1", "P-5")
+                .hasStationWithExactLines("C", "1", "P-5", "P-6")
+                .hasStationWithExactLines("D", "1", "P-5")
+                .hasLineWithExactStations("P-5", "A", "B", "C", "D")
+                .isConsistent();
+    }
+
+    /* Two identical lines named like in the FourStations suite: the first one stays */
+    @Test
+    public void testConsolidate_identicalLinesKeepFirst() {
+        Line p1 = addLine(5, "P1", stationB, stationC);
+        Line p2 = addLine(6, "P2", stationB, stationC);
+
+        Assert.assertEquals(List.of(p2), ReplacementLineConsolidator.consolidate(model));
+        Assert.assertEquals(List.of(line1, p1), model.lines);
+        assertModel(model)
+                .hasStationWithExactLines("B", "1", "P1")
+                .isConsistent();
+    }
+
+    /* Overlapping, circular and regular lines are not merged */
+    @Test
+    public void testConsolidate_keepsOtherLines() {
+        addLine(5, "P-1", stationA, stationB, stationC);
+        addLine(6, "P-2", stationB, stationC, stationD);
+        addLine(7, "2", stationB, stationC);
+        Line circular = new Line(8, "P-3", "#009EE3", true, new ArrayList<>());
+        addStops(circular, stationB, stationC);
+        model.lines.add(circular);
+
+        Assert.assertEquals(List.of(), ReplacementLineConsolidator.consolidate(model));
+        assertModel(model)
+                .hasExactLines("1", "P-1", "P-2", "2", "P-3")
+                .isConsistent();
+    }
+
+    private Line addLine(int id, String name, Station... stations) {
+        Line line = new Line(id, name, "#009EE3", false, new ArrayList<>());
+        addStops(line, stations);
+        if(model != null) {
+            model.lines.add(line);
+        }
+        return line;
+    }
+
+    private static void addStops(Line line, Station... stations) {
+        for(Station station : stations) {
+            Stop stop = new Stop(station, line);
+            station.getStops().add(stop);
+            line.getStops().add(stop);
+        }
+    }
+}
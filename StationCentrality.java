@@ -0,0 +1,353 @@
+package org.openmetromaps.maps;
+
+import org.openmetromaps.maps.model.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Betweenness centrality of the stations of a {@link ModelData} (Brandes' algorithm), as
+ * a criticality ranking: a station scores high when many shortest connections between
+ * other stations run through it, so closing it disrupts the most journeys.
+ *
+ * The station graph links consecutive stops of the registered lines, including the
+ * closing pair of circular lines; stops at stations outside of the model are skipped.
+ * Edges count one hop each, or their great-circle length between the station
+ * coordinates when weighted. Every source station is searched in its own fork-join task,
+ * and every worker thread accumulates into its own primitive arrays, which are summed
+ * once at the end. The model is only read.
+ */
+public final class StationCentrality {
+
+    private StationCentrality() {
+    }
+
+    /**
+     * Returns the betweenness of every station, in the order of model.stations. Every
+     * unordered pair of stations is counted once.
+     */
+    public static double[] betweenness(ModelData model, boolean weighted) {
+        Graph graph = Graph.of(model, weighted);
+        int n = graph.size();
+
+        // Workspaces are keyed by thread instead of held in a ThreadLocal, so they do not
+        // outlive the call in the pool's threads.
+        Map<Thread, Workspace> workspaces = new ConcurrentHashMap<>();
+        if(n > 0) {
+            ForkJoinPool.commonPool().invoke(new SourceTask(graph, workspaces, 0, n));
+        }
+
+        double[] centrality = new double[n];
+        for(Workspace used : workspaces.values()) {
+            for(int v = 0; v < n; v++) {
+                centrality[v] += used.centrality[v];
+            }
+        }
+        // Every pair was counted from both of its ends.
+        for(int v = 0; v < n; v++) {
+            centrality[v] /= 2;
+        }
+        return centrality;
+    }
+
+    /**
+     * Returns the stations of the model, most critical first. Stations with the same
+     * score keep their order in the model.
+     */
+    public static List<Station> rank(ModelData model, boolean weighted) {
+        double[] centrality = betweenness(model, weighted);
+        Integer[] order = new Integer[centrality.length];
+        for(int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> -centrality[i]));
+
+        List<Station> ranking = new ArrayList<>(order.length);
+        for(int i : order) {
+            ranking.add(model.stations.get(i));
+        }
+        return ranking;
+    }
+
+    private static final class SourceTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Graph graph;
+        private final Map<Thread, Workspace> workspaces;
+        private final int from;
+        private final int to;
+
+        SourceTask(Graph graph, Map<Thread, Workspace> workspaces, int from, int to) {
+            this.graph = graph;
+            this.workspaces = workspaces;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from == 1) {
+                workspaces.computeIfAbsent(Thread.currentThread(), thread -> new Workspace(graph.size())).accumulate(graph, from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SourceTask(graph, workspaces, from, middle), new SourceTask(graph, workspaces, middle, to));
+        }
+    }
+
+    /**
+     * Undirected station graph in compressed rows: the neighbours of station v are
+     * target[first[v]]..target[first[v + 1]], each listed once, with their edge lengths.
+     */
+    private static final class Graph {
+
+        private final int[] first;
+        private final int[] target;
+        private final double[] length;
+        private final boolean weighted;
+
+        private Graph(int[] first, int[] target, double[] length, boolean weighted) {
+            this.first = first;
+            this.target = target;
+            this.length = length;
+            this.weighted = weighted;
+        }
+
+        int size() {
+            return first.length - 1;
+        }
+
+        static Graph of(ModelData model, boolean weighted) {
+            int n = model.stations.size();
+            Map<Station, Integer> index = new IdentityHashMap<>(n * 2);
+            for(int i = 0; i < n; i++) {
+                index.putIfAbsent(model.stations.get(i), i);
+            }
+
+            int edges = 0;
+            for(Line line : model.lines) {
+                edges += line.getStops().size();
+            }
+            int[] ends = new int[edges * 2];
+            int count = 0;
+            for(Line line : model.lines) {
+                List<Stop> stops = line.getStops();
+                int segments = line.isCircular() ? stops.size() : stops.size() - 1;
+                for(int i = 0; i < segments; i++) {
+                    Integer from = index.get(stops.get(i).getStation());
+                    Integer to = index.get(stops.get((i + 1) % stops.size()).getStation());
+                    if(from != null && to != null && !from.equals(to)) {
+                        ends[count++] = from;
+                        ends[count++] = to;
+                    }
+                }
+            }
+
+            // Count both directions of every segment, then drop segments served by more
+            // than one line, which sort next to each other within a row.
+            int[] first = new int[n + 1];
+            for(int e = 0; e < count; e++) {
+                first[ends[e] + 1]++;
+            }
+            for(int v = 0; v < n; v++) {
+                first[v + 1] += first[v];
+            }
+            int[] next = first.clone();
+            int[] target = new int[count];
+            for(int e = 0; e < count; e += 2) {
+                target[next[ends[e]]++] = ends[e + 1];
+                target[next[ends[e + 1]]++] = ends[e];
+            }
+
+            int[] uniqueFirst = new int[n + 1];
+            int unique = 0;
+            for(int v = 0; v < n; v++) {
+                Arrays.sort(target, first[v], first[v + 1]);
+                uniqueFirst[v] = unique;
+                for(int e = first[v]; e < first[v + 1]; e++) {
+                    if(e == first[v] || target[e] != target[e - 1]) {
+                        target[unique++] = target[e];
+                    }
+                }
+            }
+            uniqueFirst[n] = unique;
+            target = Arrays.copyOf(target, unique);
+
+            // Stations at the same location are kept a millimetre apart: counting shortest
+            // paths needs every edge to have a positive length.
+            double[] length = new double[unique];
+            for(int v = 0; v < n; v++) {
+                Coordinate from = model.stations.get(v).getLocation();
+                for(int e = uniqueFirst[v]; e < uniqueFirst[v + 1]; e++) {
+                    Coordinate to = model.stations.get(target[e]).getLocation();
+                    length[e] = weighted
+                            ? Math.max(0.001, Haversine.distance(from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude()))
+                            : 1;
+                }
+            }
+            return new Graph(uniqueFirst, target, length, weighted);
+        }
+    }
+
+    /**
+     * Per-thread scratch space of the shortest-path searches and the thread's share of
+     * the result. All arrays are sized once and reset per source.
+     */
+    private static final class Workspace {
+
+        private final double[] centrality;
+        private final double[] distance;
+        private final double[] paths;
+        private final double[] dependency;
+        private final int[] settled;
+
+        // Binary heap of stations ordered by distance, for weighted searches.
+        private final int[] heap;
+        private final int[] heapPosition;
+
+        Workspace(int n) {
+            this.centrality = new double[n];
+            this.distance = new double[n];
+            this.paths = new double[n];
+            this.dependency = new double[n];
+            this.settled = new int[n];
+            this.heap = new int[n];
+            this.heapPosition = new int[n];
+        }
+
+        void accumulate(Graph graph, int source) {
+            Arrays.fill(distance, Double.POSITIVE_INFINITY);
+            Arrays.fill(paths, 0);
+            Arrays.fill(dependency, 0);
+            distance[source] = 0;
+            paths[source] = 1;
+
+            int count = graph.weighted ? dijkstra(graph, source) : breadthFirst(graph, source);
+
+            // Stations are settled in order of distance, so walking them backwards visits
+            // every station after all stations it lies on a shortest path to.
+            for(int i = count - 1; i > 0; i--) {
+                int w = settled[i];
+                double share = (1 + dependency[w]) / paths[w];
+                for(int e = graph.first[w]; e < graph.first[w + 1]; e++) {
+                    int v = graph.target[e];
+                    if(isShortest(distance[v] + graph.length[e], distance[w])) {
+                        dependency[v] += paths[v] * share;
+                    }
+                }
+                centrality[w] += dependency[w];
+            }
+        }
+
+        private int breadthFirst(Graph graph, int source) {
+            int count = 0;
+            settled[count++] = source;
+            for(int head = 0; head < count; head++) {
+                int v = settled[head];
+                for(int e = graph.first[v]; e < graph.first[v + 1]; e++) {
+                    int w = graph.target[e];
+                    if(distance[w] == Double.POSITIVE_INFINITY) {
+                        distance[w] = distance[v] + 1;
+                        settled[count++] = w;
+                    }
+                    if(distance[w] == distance[v] + 1) {
+                        paths[w] += paths[v];
+                    }
+                }
+            }
+            return count;
+        }
+
+        private int dijkstra(Graph graph, int source) {
+            Arrays.fill(heapPosition, -1);
+            int size = 0;
+            heap[size] = source;
+            heapPosition[source] = size++;
+
+            int count = 0;
+            while(size > 0) {
+                int v = heap[0];
+                heapPosition[v] = -2;
+                if(--size > 0) {
+                    heap[0] = heap[size];
+                    heapPosition[heap[0]] = 0;
+                    siftDown(0, size);
+                }
+                settled[count++] = v;
+
+                for(int e = graph.first[v]; e < graph.first[v + 1]; e++) {
+                    int w = graph.target[e];
+                    if(heapPosition[w] == -2) {
+                        continue;
+                    }
+                    double candidate = distance[v] + graph.length[e];
+                    if(isShortest(candidate, distance[w])) {
+                        paths[w] += paths[v];
+                    } else if(candidate < distance[w]) {
+                        distance[w] = candidate;
+                        paths[w] = paths[v];
+                        if(heapPosition[w] < 0) {
+                            heap[size] = w;
+                            heapPosition[w] = size++;
+                        }
+                        siftUp(heapPosition[w]);
+                    }
+                }
+            }
+            return count;
+        }
+
+        private void siftUp(int position) {
+            int v = heap[position];
+            while(position > 0) {
+                int parent = (position - 1) >>> 1;
+                if(distance[heap[parent]] <= distance[v]) {
+                    break;
+                }
+                heap[position] = heap[parent];
+                heapPosition[heap[position]] = position;
+                position = parent;
+            }
+            heap[position] = v;
+            heapPosition[v] = position;
+        }
+
+        private void siftDown(int position, int size) {
+            int v = heap[position];
+            while(true) {
+                int child = 2 * position + 1;
+                if(child >= size) {
+                    break;
+                }
+                if(child + 1 < size && distance[heap[child + 1]] < distance[heap[child]]) {
+                    child++;
+                }
+                if(distance[heap[child]] >= distance[v]) {
+                    break;
+                }
+                heap[position] = heap[child];
+                heapPosition[heap[position]] = position;
+                position = child;
+            }
+            heap[position] = v;
+            heapPosition[v] = position;
+        }
+
+        /**
+         * Whether a path of the given length ties with the shortest distance found. Sums
+         * of great-circle lengths are compared with a relative tolerance, so two routes of
+         * the same length split the paths between them regardless of rounding.
+         */
+        private static boolean isShortest(double length, double shortest) {
+            return shortest != Double.POSITIVE_INFINITY && Math.abs(length - shortest) <= 1e-9 * shortest;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package org.openmetromaps.maps;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmetromaps.maps.model.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class StationCentralityUnitTests {
+
+    ModelData model;
+
+    Station stationA;
+    Station stationB;
+    Station stationC;
+    Station stationD;
+
+    Line line1;
+    Line line2;
+
+    /* CREATE MAP
+
+    A       B       C       D
+    * ----- * ----- * ----- *       1
+            * ----- *               2
+
+    */
+    @Before
+    public void createMap() {
+        stationA = new Station(0, "A", new Coordinate(47.4891, 19.0614), new ArrayList<>());
+        stationB = new Station(1, "B", new Coordinate(47.4891, 19.0714), new ArrayList<>());
+        stationC = new Station(2, "C", new Coordinate(47.4891, 19.0814), new ArrayList<>());
+        stationD = new Station(3, "D", new Coordinate(47.4891, 19.0914), new ArrayList<>());
+
+        line1 = new Line(4, "1", "#009EE3", false, new ArrayList<>());
+        line2 = new Line(5, "2", "#009EE3", false, new ArrayList<>());
+
+        addStops(line1, stationA, stationB, stationC, stationD);
+        addStops(line2, stationB, stationC);
+
+        model = new ModelData(
+                new ArrayList<>(List.of(line1, line2)),
+                new ArrayList<>(List.of(stationA, stationB, stationC, stationD))
+        );
+    }
+
+    /* B lies between A and C, A and D; C between A and D, B and D */
+    @Test
+    public void testBetweenness_line() {
+        assertBetweenness(StationCentrality.betweenness(model, false), 0, 2, 2, 0);
+        assertBetweenness(StationCentrality.betweenness(model, true), 0, 2, 2, 0);
+    }
+
+    /* Line 1 closes the loop D - A, so A - C and B - D each have two shortest routes */
+    @Test
+    public void testBetweenness_circularLine() {
+        model.lines.set(0, new Line(4, "1", "#009EE3", true, line1.getStops()));
+
+        assertBetweenness(StationCentrality.betweenness(model, false), 0.5, 0.5, 0.5, 0.5);
+    }
+
+    /* CREATE MAP
+
+            F
+          /   \
+    E   *       *   G       3 (circular)
+          \   /
+            *
+            H (far off)
+
+    E - G is shorter through F; F - H is as long through E as through G
+    */
+    @Test
+    public void testBetweenness_weightedByDistance() {
+        Station stationE = new Station(6, "E", new Coordinate(47.4891, 19.0614), new ArrayList<>());
+        Station stationF = new Station(7, "F", new Coordinate(47.4901, 19.0714), new ArrayList<>());
+        Station stationG = new Station(8, "G", new Coordinate(47.4891, 19.0814), new ArrayList<>());
+        Station stationH = new Station(9, "H", new Coordinate(47.4391, 19.0714), new ArrayList<>());
+        Line line3 = new Line(10, "3", "#009EE3", true, new ArrayList<>());
+        addStops(line3, stationE, stationF, stationG, stationH);
+        ModelData square = new ModelData(new ArrayList<>(List.of(line3)), new ArrayList<>(List.of(stationE, stationF, stationG, stationH)));
+
+        assertBetweenness(StationCentrality.betweenness(square, false), 0.5, 0.5, 0.5, 0.5);
+        assertBetweenness(StationCentrality.betweenness(square, true), 0.5, 1, 0.5, 0);
+        Assert.assertSame(stationF, StationCentrality.rank(square, true).get(0));
+    }
+
+    @Test
+    public void testBetweenness_skipsStationsOutsideOfModel() {
+        model.stations.remove(stationD);
+
+        assertBetweenness(StationCentrality.betweenness(model, false), 0, 1, 0);
+    }
+
+    @Test
+    public void testRank_mostCriticalFirst() {
+        Assert.assertEquals(List.of(stationB, stationC, stationA, stationD), StationCentrality.rank(model, false));
+    }
+
+    @Test
+    public void testBetweenness_matchesAllPairsCount() {
+        for(long seed = 0; seed < 5; seed++) {
+            ModelData generated = new NetworkGenerator(seed)
+                    .stations(60)
+                    .lines(8)
+                    .stopsPerLine(3, 12)
+                    .overlap(0.5)
+                    .circularRatio(0.3)
+                    .generate();
+
+            for(boolean weighted : new boolean[] {false, true}) {
+                double[] expected = allPairsBetweenness(generated, weighted);
+                double[] actual = StationCentrality.betweenness(generated, weighted);
+                for(int v = 0; v < expected.length; v++) {
+                    Assert.assertEquals("Station S" + v + ", seed " + seed + ", weighted " + weighted, expected[v], actual[v], 1e-9);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reference betweenness from all-pairs shortest paths and path counts (Floyd-Warshall),
+     * summing sigma(s, v) * sigma(v, t) / sigma(s, t) over all pairs s < t.
+     */
+    private static double[] allPairsBetweenness(ModelData model, boolean weighted) {
+        int n = model.stations.size();
+        double[][] distance = new double[n][n];
+        double[][] paths = new double[n][n];
+        for(int i = 0; i < n; i++) {
+            Arrays.fill(distance[i], Double.POSITIVE_INFINITY);
+            distance[i][i] = 0;
+            paths[i][i] = 1;
+        }
+        for(Line line : model.lines) {
+            List<Stop> stops = line.getStops();
+            int segments = line.isCircular() ? stops.size() : stops.size() - 1;
+            for(int i = 0; i < segments; i++) {
+                Station from = stops.get(i).getStation();
+                Station to = stops.get((i + 1) % stops.size()).getStation();
+                double length = weighted ? Haversine.distance(
+                        from.getLocation().getLatitude(), from.getLocation().getLongitude(),
+                        to.getLocation().getLatitude(), to.getLocation().getLongitude()) : 1;
+                distance[from.getId()][to.getId()] = length;
+                distance[to.getId()][from.getId()] = length;
+                paths[from.getId()][to.getId()] = 1;
+                paths[to.getId()][from.getId()] = 1;
+            }
+        }
+        for(int k = 0; k < n; k++) {
+            for(int i = 0; i < n; i++) {
+                for(int j = 0; j < n; j++) {
+                    if(i == k || j == k || i == j) {
+                        continue;
+                    }
+                    double through = distance[i][k] + distance[k][j];
+                    if(isSame(through, distance[i][j])) {
+                        paths[i][j] += paths[i][k] * paths[k][j];
+                    } else if(through < distance[i][j]) {
+                        distance[i][j] = through;
+                        paths[i][j] = paths[i][k] * paths[k][j];
+                    }
+                }
+            }
+        }
+
+        double[] betweenness = new double[n];
+        for(int s = 0; s < n; s++) {
+            for(int t = s + 1; t < n; t++) {
+                for(int v = 0; v < n; v++) {
+                    if(v != s && v != t && isSame(distance[s][v] + distance[v][t], distance[s][t])) {
+                        betweenness[v] += paths[s][v] * paths[v][t] / paths[s][t];
+                    }
+                }
+            }
+        }
+        return betweenness;
+    }
+
+    private static boolean isSame(double length, double shortest) {
+        return shortest != Double.POSITIVE_INFINITY && Math.abs(length - shortest) <= 1e-9 * shortest;
+    }
+
+    private static void assertBetweenness(double[] actual, double... expected) {
+        Assert.assertArrayEquals(expected, actual, 1e-9);
+    }
+
+    private static void addStops(Line line, Station... stations) {
+        for(Station station : stations) {
+            Stop stop = new Stop(station, line);
+            station.getStops().add(stop);
+            line.getStops().add(stop);
+        }
+    }
+}